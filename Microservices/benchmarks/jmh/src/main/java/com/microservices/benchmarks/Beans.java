@@ -0,0 +1,24 @@
+package com.microservices.benchmarks;
+
+import java.lang.reflect.Field;
+
+/**
+ * Stands in for Spring when a benchmark builds a service bean by hand:
+ * sets a private @Value field that the container would have injected.
+ */
+final class Beans {
+
+    private Beans() {
+    }
+
+    static <T> T inject(T bean, String fieldName, Object value) {
+        try {
+            Field field = bean.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(bean, value);
+            return bean;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + bean.getClass().getName(), e);
+        }
+    }
+}
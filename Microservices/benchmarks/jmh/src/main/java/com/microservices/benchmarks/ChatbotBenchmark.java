@@ -0,0 +1,51 @@
+package com.microservices.benchmarks;
+
+import com.microservices.chatbotservice.service.ChatbotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based answers of the chatbot with no OpenAI key configured: a direct
+ * keyword hit, a hit through the per-word partial match, and a miss that
+ * walks every rule for every word and falls back to the default answer.
+ * The fallback also writes to stdout, which is part of what it costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatbotBenchmark {
+
+    @Param({
+            "How do I cancel my ticket for tomorrow?",
+            "Is there a sleeper seat",
+            "Which platform does the evening express to the coast leave from"
+    })
+    public String message;
+
+    private ChatbotService chatbot;
+
+    @Setup
+    public void setup() {
+        // Without initializeOpenAiService() no OpenAI client exists, so no call leaves the process
+        chatbot = new ChatbotService();
+    }
+
+    @Benchmark
+    public String getResponse() {
+        return chatbot.getResponse(message);
+    }
+}
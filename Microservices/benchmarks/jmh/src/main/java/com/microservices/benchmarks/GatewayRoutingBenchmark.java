@@ -0,0 +1,73 @@
+package com.microservices.benchmarks;
+
+import com.microservice.filter.AuthenticationFilter;
+import com.microservice.filter.RouteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request routing decisions in the gateway: RouteValidator.isSecured
+ * matches the path against the open endpoints, and the authentication
+ * filter's isAdminOnlyOperation matches it against the admin-only rules.
+ * The paths cover an open endpoint, a secured one that matches no rule and
+ * admin rules that need a regex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayRoutingBenchmark {
+
+    @Param({"/trains/available/12", "/tickets/user/passenger@example.com", "/api/users/42", "/api/payments"})
+    public String path;
+
+    @Param({"GET", "DELETE"})
+    public String method;
+
+    private RouteValidator routeValidator;
+    private ServerHttpRequest request;
+    private AuthenticationFilter filter;
+    private MethodHandle isAdminOnlyOperation;
+    private HttpMethod httpMethod;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        routeValidator = new RouteValidator();
+        httpMethod = HttpMethod.valueOf(method);
+        request = MockServerHttpRequest.method(httpMethod, path).build();
+        filter = new AuthenticationFilter();
+        // Private in the filter; a private lookup avoids reflection cost in the measured call
+        isAdminOnlyOperation = MethodHandles.privateLookupIn(AuthenticationFilter.class, MethodHandles.lookup())
+                .findVirtual(AuthenticationFilter.class, "isAdminOnlyOperation",
+                        MethodType.methodType(boolean.class, String.class, HttpMethod.class));
+    }
+
+    @Benchmark
+    public boolean isSecured() {
+        return routeValidator.isSecured.test(request);
+    }
+
+    @Benchmark
+    public boolean isAdminOnlyOperation() throws Throwable {
+        return (boolean) isAdminOnlyOperation.invokeExact(filter, path, httpMethod);
+    }
+}
@@ -0,0 +1,78 @@
+package com.microservices.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks on every authenticated request: the gateway validates the
+ * token and then reads the role from it, parsing it twice; user-service
+ * parses it again to get the email. Tokens are issued by user-service's
+ * JwtUtil with the same secret, as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+
+    private com.microservice.util.JwtUtil gatewayJwt;
+    private com.microservices.config.JwtUtil userJwt;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() {
+        gatewayJwt = Beans.inject(new com.microservice.util.JwtUtil(), "secretKey", SECRET);
+        gatewayJwt.init();
+        userJwt = Beans.inject(new com.microservices.config.JwtUtil(), "secretKey", SECRET);
+        userJwt.init();
+        token = userJwt.generateToken("passenger@example.com", "ROLE_USER");
+        // Same header and claims, broken signature
+        tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+    }
+
+    @Benchmark
+    public boolean gatewayValidateToken() {
+        return gatewayJwt.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean gatewayValidateTamperedToken() {
+        return gatewayJwt.validateToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String gatewayExtractRole() {
+        return gatewayJwt.extractRole(token);
+    }
+
+    // What AuthenticationFilter does per secured request
+    @Benchmark
+    public String gatewayValidateThenExtractRole() {
+        return gatewayJwt.validateToken(token) ? gatewayJwt.extractRole(token) : null;
+    }
+
+    @Benchmark
+    public String userServiceValidateToken() {
+        return userJwt.validateToken(token);
+    }
+
+    @Benchmark
+    public String userServiceGenerateToken() {
+        return userJwt.generateToken("passenger@example.com", "ROLE_USER");
+    }
+}
@@ -0,0 +1,58 @@
+package com.microservices.benchmarks;
+
+import com.microservice.util.Utils;
+import org.apache.commons.codec.binary.Hex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Razorpay signature check done by payment-service on every payment
+ * verification: HMAC-SHA256 over "order_id|payment_id", hex encoded and
+ * compared with the signature sent by the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentSignatureBenchmark {
+
+    private static final String SECRET = "rzp_test_benchmark_secret";
+
+    private String payload;
+    private String validSignature;
+    private String invalidSignature;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = "order_Nq1xYd8kP2vA3b|pay_Nq1xZk7LmQ4rT9";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        validSignature = Hex.encodeHexString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        invalidSignature = validSignature.substring(1) + "0";
+    }
+
+    @Benchmark
+    public boolean verifyValidSignature() throws Exception {
+        return Utils.verifySign(payload, validSignature, SECRET);
+    }
+
+    @Benchmark
+    public boolean verifyInvalidSignature() throws Exception {
+        return Utils.verifySign(payload, invalidSignature, SECRET);
+    }
+}
@@ -0,0 +1,52 @@
+package com.microservices.benchmarks;
+
+import com.microservices.component.Methods;
+import com.microservices.component.TicketNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PNR generation on the booking path, single threaded and with four threads
+ * sharing one generator the way concurrent booking requests do. A node has
+ * 4096 sequence numbers per millisecond; a faster burst carries into the
+ * following milliseconds, so the generator runs ahead of the wall clock by up
+ * to TicketNumberGenerator's 5 ms limit and then parks until the clock catches
+ * up. Scores above about 4096 ops/ms therefore include that parking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketNumberBenchmark {
+
+    private Methods methods;
+
+    @Setup
+    public void setup() {
+        methods = new Methods(new TicketNumberGenerator(1));
+    }
+
+    @Benchmark
+    public String generateTicketNumber() {
+        return methods.generateTicketNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateTicketNumberContended() {
+        return methods.generateTicketNumber();
+    }
+}
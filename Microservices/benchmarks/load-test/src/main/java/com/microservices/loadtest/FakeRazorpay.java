@@ -0,0 +1,136 @@
+package com.microservices.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the Razorpay API that payment-service calls when
+ * razorpay.api-url points here: POST /v1/orders and
+ * POST /v1/payments/{id}/refund, each answered after a fixed latency.
+ * checkout() plays the part of Razorpay Checkout in the browser: it issues a
+ * payment id and the signature payment-service verifies, HMAC-SHA256 of
+ * "orderId|paymentId" with the shared key secret.
+ */
+final class FakeRazorpay implements AutoCloseable {
+
+    record Payment(String paymentId, String signature) {
+    }
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SecretKeySpec signingKey;
+    private final long latencyMs;
+    private final AtomicLong orders = new AtomicLong();
+    private final AtomicLong payments = new AtomicLong();
+    private final AtomicLong refunds = new AtomicLong();
+
+    FakeRazorpay(int port, String keySecret, long latencyMs) throws IOException {
+        this.signingKey = new SecretKeySpec(keySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.createContext("/v1/orders", this::createOrder);
+        server.createContext("/v1/payments/", this::refund);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    Payment checkout(String orderId) {
+        String paymentId = String.format("pay_lt%012d", payments.incrementAndGet());
+        return new Payment(paymentId, sign(orderId + '|' + paymentId));
+    }
+
+    Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("orders", orders.get());
+        stats.put("payments", payments.get());
+        stats.put("refunds", refunds.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void createOrder(HttpExchange exchange) throws IOException {
+        Map<?, ?> request = readBody(exchange);
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", String.format("order_lt%012d", orders.incrementAndGet()));
+        order.put("entity", "order");
+        order.put("amount", request.get("amount"));
+        order.put("currency", request.containsKey("currency") ? request.get("currency") : "INR");
+        order.put("status", "created");
+        order.put("created_at", System.currentTimeMillis() / 1000);
+        respond(exchange, order);
+    }
+
+    private void refund(HttpExchange exchange) throws IOException {
+        // /v1/payments/{paymentId}/refund
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        if (path.length != 5 || !"refund".equals(path[4])) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        Map<?, ?> request = readBody(exchange);
+        Map<String, Object> refund = new LinkedHashMap<>();
+        refund.put("id", String.format("rfnd_lt%012d", refunds.incrementAndGet()));
+        refund.put("entity", "refund");
+        refund.put("payment_id", path[3]);
+        refund.put("amount", request.get("amount"));
+        refund.put("status", "processed");
+        respond(exchange, refund);
+    }
+
+    private Map<?, ?> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            return bytes.length == 0 ? Map.of() : objectMapper.readValue(bytes, Map.class);
+        }
+    }
+
+    private void respond(HttpExchange exchange, Map<String, Object> body) throws IOException {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservices.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latency of every request per endpoint, plus error and
+ * outcome counts, and summarises them as throughput and percentiles over
+ * the run's wall-clock time.
+ */
+final class Recorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).add(nanos, ok);
+    }
+
+    void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    Map<String, Object> summary(long wallNanos, String... order) {
+        double seconds = wallNanos / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (String name : order) {
+            Endpoint endpoint = endpoints.get(name);
+            if (endpoint == null) {
+                continue;
+            }
+            long[] sorted = endpoint.sorted();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", sorted.length);
+            stats.put("errors", endpoint.errors.get());
+            stats.put("throughput", sorted.length / seconds);
+            stats.put("p50Ms", percentile(sorted, 0.50));
+            stats.put("p90Ms", percentile(sorted, 0.90));
+            stats.put("p99Ms", percentile(sorted, 0.99));
+            stats.put("maxMs", percentile(sorted, 1.0));
+            summary.put(name, stats);
+        }
+        return summary;
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        outcomes.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue().get()));
+        return counts;
+    }
+
+    static void print(Map<String, Object> summary) {
+        System.out.printf("%-14s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Object> entry : summary.entrySet()) {
+            Map<?, ?> stats = (Map<?, ?>) entry.getValue();
+            System.out.printf("%-14s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    stats.get("requests"), stats.get("errors"), stats.get("throughput"),
+                    stats.get("p50Ms"), stats.get("p90Ms"), stats.get("p99Ms"), stats.get("maxMs"));
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+        private long[] values = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.microservices.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Scenario settings: tatkal-rush.properties from the classpath, then an
+ * optional --scenario=file, then --key=value arguments, later ones winning.
+ */
+final class Scenario {
+
+    private final Properties properties = new Properties();
+
+    private Scenario() {
+    }
+
+    static Scenario load(String[] args) throws IOException {
+        Scenario scenario = new Scenario();
+        try (InputStream defaults = Scenario.class.getResourceAsStream("/tatkal-rush.properties")) {
+            if (defaults == null) {
+                throw new IllegalStateException("tatkal-rush.properties missing from the classpath");
+            }
+            scenario.properties.load(defaults);
+        }
+        for (String arg : args) {
+            if (arg.startsWith("--scenario=")) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(arg.substring("--scenario=".length())))) {
+                    scenario.properties.load(reader);
+                }
+            }
+        }
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=") && !arg.startsWith("--scenario=")) {
+                int eq = arg.indexOf('=');
+                scenario.properties.setProperty(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return scenario;
+    }
+
+    String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing scenario setting: " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    Path getPath(String key) {
+        return Paths.get(get(key)).toAbsolutePath().normalize();
+    }
+
+    List<String> getList(String key) {
+        String value = get(key);
+        return value.isEmpty() ? List.of() : Arrays.asList(value.split("\\s+"));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("users=%s iterations=%s ramp-ms=%s trains=%s seats-per-train=%s seats-per-booking=%s razorpay.latency-ms=%s",
+                get("users"), get("iterations"), get("ramp-ms"), get("trains"), get("seats-per-train"),
+                get("seats-per-booking"), get("razorpay.latency-ms"));
+    }
+}
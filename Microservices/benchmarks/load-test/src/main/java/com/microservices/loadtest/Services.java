@@ -0,0 +1,126 @@
+package com.microservices.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Starts each service from its packaged Boot jar as a separate JVM (their
+ * Boot versions differ, so they cannot share one), with the stand-ins wired
+ * in through --key=value arguments, and stops them again. Output goes to
+ * one log file per service under the work directory.
+ */
+final class Services implements AutoCloseable {
+
+    private final Path logDir;
+    private final List<String> jvmArgs;
+    private final List<String> extraArgs;
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+    private final Map<String, Integer> ports = new LinkedHashMap<>();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    Services(Path logDir, List<String> jvmArgs, List<String> extraArgs) throws IOException {
+        this.logDir = Files.createDirectories(logDir);
+        this.jvmArgs = jvmArgs;
+        this.extraArgs = extraArgs;
+    }
+
+    void start(String name, Path moduleDir, int port, List<String> args) throws IOException {
+        Path jar = findJar(moduleDir);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(args);
+        command.addAll(extraArgs);
+        Path log = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.put(name, process);
+        ports.put(name, port);
+        System.out.printf("Started %-16s pid %-7d port %d, log %s%n", name, process.pid(), port, log);
+    }
+
+    // A service counts as up once its port answers HTTP; Boot opens the port after the context has started
+    void awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Map.Entry<String, Process> service : processes.entrySet()) {
+            String name = service.getKey();
+            URI uri = URI.create("http://localhost:" + ports.get(name) + "/");
+            while (!answers(uri)) {
+                if (!service.getValue().isAlive()) {
+                    throw new IllegalStateException(name + " exited with status " + service.getValue().exitValue()
+                            + ", see " + logDir.resolve(name + ".log"));
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(name + " did not start within " + timeout.toSeconds()
+                            + "s, see " + logDir.resolve(name + ".log"));
+                }
+                Thread.sleep(500);
+            }
+            System.out.printf("%-16s ready%n", name);
+        }
+    }
+
+    @Override
+    public void close() {
+        processes.values().forEach(Process::destroy);
+        for (Map.Entry<String, Process> service : processes.entrySet()) {
+            try {
+                if (!service.getValue().waitFor(20, TimeUnit.SECONDS)) {
+                    service.getValue().destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                service.getValue().destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private boolean answers(URI uri) throws InterruptedException {
+        try {
+            httpClient.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(2)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            // Refused while the service is still starting, or open but not answering yet
+            return false;
+        }
+    }
+
+    private static Path findJar(Path moduleDir) throws IOException {
+        Path target = moduleDir.resolve("target");
+        if (Files.isDirectory(target)) {
+            try (Stream<Path> files = Files.list(target)) {
+                List<Path> jars = files
+                        .filter(file -> file.getFileName().toString().endsWith(".jar"))
+                        .filter(file -> !file.getFileName().toString().endsWith("-plain.jar"))
+                        .toList();
+                if (jars.size() == 1) {
+                    return jars.get(0);
+                }
+            }
+        }
+        throw new IllegalStateException("Expected one Boot jar in " + target
+                + "; run mvn -B package -DskipTests in " + moduleDir + " first");
+    }
+}
@@ -0,0 +1,387 @@
+package com.microservices.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Tatkal-rush load test. Starts api-gateway, user-service, train-service,
+ * ticket-service and payment-service against an embedded Postgres, a fake
+ * Razorpay and a fake SMTP server, seeds trains and users, then releases a
+ * burst of users through the gateway, each running
+ * login -> search -> availability -> create order -> book.
+ * Prints throughput and p50/p90/p99 per endpoint and writes them to
+ * report.json in the work directory.
+ *
+ * mvn -B package, then java -jar target/load-test.jar [--scenario=file] [--key=value ...]
+ */
+public final class TatkalRush {
+
+    private static final String JWT_SECRET = "tatkal-rush-load-test-jwt-secret-0123456789abcdefghijklmnopqrstuv";
+    private static final String RAZORPAY_KEY = "rzp_test_loadtest";
+    private static final String RAZORPAY_SECRET = "tatkal-rush-razorpay-secret";
+    private static final String PASSWORD = "tatkal123";
+    private static final String[] STATIONS = {"Mumbai", "Delhi", "Chennai", "Kolkata", "Bengaluru", "Hyderabad",
+            "Pune", "Ahmedabad", "Jaipur", "Lucknow", "Patna", "Bhopal"};
+    private static final String[] ENDPOINTS = {"login", "search", "availability", "create_order", "book"};
+
+    private final Scenario scenario;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Recorder recorder = new Recorder();
+    private final Duration requestTimeout;
+    private final String gateway;
+    private final LocalDate journeyDate;
+
+    private TatkalRush(Scenario scenario) {
+        this.scenario = scenario;
+        this.requestTimeout = Duration.ofMillis(scenario.getInt("request-timeout-ms"));
+        this.gateway = "http://localhost:" + scenario.getInt("gateway.port");
+        this.journeyDate = LocalDate.now().plusDays(scenario.getInt("journey-days-ahead"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scenario scenario = Scenario.load(args);
+        System.out.println("Scenario: " + scenario);
+        new TatkalRush(scenario).run();
+    }
+
+    private void run() throws Exception {
+        Path workDir = Files.createDirectories(scenario.getPath("work-dir"));
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setPort(scenario.getInt("postgres.port"))
+                .setDataDirectory(workDir.resolve("postgres"))
+                .setCleanDataDirectory(true)
+                .start();
+             FakeRazorpay razorpay = new FakeRazorpay(scenario.getInt("razorpay.port"), RAZORPAY_SECRET,
+                     scenario.getInt("razorpay.latency-ms"));
+             FakeSmtp smtp = new FakeSmtp(scenario.getInt("smtp.port"));
+             Services services = new Services(workDir.resolve("logs"), scenario.getList("service.jvm-args"),
+                     scenario.getList("service.args"))) {
+            createDatabases(postgres, "user_db", "train_db", "ticket_db", "payment_db");
+            startServices(services, postgres, razorpay, smtp);
+            services.awaitReady(Duration.ofSeconds(scenario.getInt("startup-timeout-s")));
+
+            List<Train> trains = seedTrains();
+            int users = scenario.getInt("users");
+            seedUsers(users);
+            System.out.printf("Seeded %d trains for %s and %d users%n", trains.size(), journeyDate, users);
+
+            long wallNanos = burst(users, trains, razorpay);
+
+            Map<String, Object> summary = recorder.summary(wallNanos, ENDPOINTS);
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("scenario", scenario.toString());
+            report.put("wallSeconds", wallNanos / 1e9);
+            report.put("endpoints", summary);
+            report.put("outcomes", recorder.outcomes());
+            report.put("razorpay", razorpay.stats());
+            report.put("smtpMessages", smtp.messages());
+            Path reportFile = workDir.resolve("report.json");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+            System.out.printf("%nBurst of %d journeys finished in %.1f s%n", users * scenario.getInt("iterations"), wallNanos / 1e9);
+            Recorder.print(summary);
+            System.out.println("Outcomes: " + recorder.outcomes());
+            System.out.println("Report: " + reportFile);
+        }
+    }
+
+    private static void createDatabases(EmbeddedPostgres postgres, String... names) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String name : names) {
+                statement.execute("CREATE DATABASE " + name);
+            }
+        }
+    }
+
+    private void startServices(Services services, EmbeddedPostgres postgres, FakeRazorpay razorpay, FakeSmtp smtp)
+            throws IOException {
+        Path servicesDir = scenario.getPath("services.dir");
+        int userPort = scenario.getInt("user.port");
+        int trainPort = scenario.getInt("train.port");
+        int ticketPort = scenario.getInt("ticket.port");
+        int paymentPort = scenario.getInt("payment.port");
+        List<String> mail = List.of(
+                "--spring.mail.host=localhost",
+                "--spring.mail.port=" + smtp.port(),
+                "--spring.mail.username=loadtest",
+                "--spring.mail.password=loadtest",
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false");
+
+        services.start("user-service", servicesDir.resolve("user-service"), userPort,
+                concat(database(postgres, "user_db"), mail, List.of("--jwt.secret=" + JWT_SECRET)));
+        services.start("train-service", servicesDir.resolve("train-service"), trainPort,
+                concat(database(postgres, "train_db"), List.of(
+                        "--train.invalidation.subscribers=http://localhost:" + ticketPort + "/tickets/cache/trains/invalidate")));
+        services.start("payment-service", servicesDir.resolve("payment-service"), paymentPort,
+                concat(database(postgres, "payment_db"), List.of(
+                        "--razorpay.key=" + RAZORPAY_KEY,
+                        "--razorpay.secret=" + RAZORPAY_SECRET,
+                        "--razorpay.api-url=" + razorpay.url())));
+        services.start("ticket-service", servicesDir.resolve("ticket-service"), ticketPort,
+                concat(database(postgres, "ticket_db"), mail, List.of(
+                        "--train-service.url=http://localhost:" + trainPort,
+                        "--ticket.journal.dir=" + scenario.getPath("work-dir").resolve("ticket-journal"))));
+
+        List<String> gatewayArgs = new ArrayList<>(List.of("--eureka.client.enabled=false", "--jwt.secret=" + JWT_SECRET));
+        addRoute(gatewayArgs, 0, "user-service", userPort, "/api/users/**");
+        addRoute(gatewayArgs, 1, "train-service", trainPort, "/trains/**");
+        addRoute(gatewayArgs, 2, "ticket-service", ticketPort, "/tickets/**");
+        addRoute(gatewayArgs, 3, "payment-service", paymentPort, "/createOrder,/verify,/refund");
+        services.start("api-gateway", scenario.getPath("gateway.dir"), scenario.getInt("gateway.port"), gatewayArgs);
+    }
+
+    private static List<String> database(EmbeddedPostgres postgres, String name) {
+        return List.of(
+                "--eureka.client.enabled=false",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", name),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "--spring.jpa.hibernate.ddl-auto=update");
+    }
+
+    private static void addRoute(List<String> args, int index, String id, int port, String paths) {
+        String route = "--spring.cloud.gateway.routes[" + index + "].";
+        args.add(route + "id=" + id);
+        args.add(route + "uri=http://localhost:" + port);
+        args.add(route + "predicates[0]=Path=" + paths);
+        args.add(route + "filters[0]=AuthenticationFilter");
+    }
+
+    @SafeVarargs
+    private static List<String> concat(List<String>... lists) {
+        List<String> all = new ArrayList<>();
+        for (List<String> list : lists) {
+            all.addAll(list);
+        }
+        return all;
+    }
+
+    private record Train(long id, String source, int fareRupees) {
+    }
+
+    // Trains are added on train-service directly; through the gateway that needs an admin token
+    private List<Train> seedTrains() throws IOException, InterruptedException {
+        String trainService = "http://localhost:" + scenario.getInt("train.port");
+        int fare = scenario.getInt("fare-rupees");
+        List<Train> trains = new ArrayList<>();
+        for (int i = 0; i < scenario.getInt("trains"); i++) {
+            String source = STATIONS[i % STATIONS.length];
+            String middle = STATIONS[(i + 3) % STATIONS.length];
+            String destination = STATIONS[(i + 6) % STATIONS.length];
+            Map<String, Object> train = new LinkedHashMap<>();
+            train.put("trainName", "Tatkal Express " + (i + 1));
+            train.put("source", source);
+            train.put("destination", destination);
+            train.put("totalSeats", scenario.getInt("seats-per-train"));
+            train.put("routes", List.of(source, middle, destination));
+            train.put("departureTime", "10:30:00");
+            train.put("arrivalTime", "22:15:00");
+            train.put("amount", fare);
+            train.put("date", journeyDate.toString());
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(trainService + "/trains/add"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(train))));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Adding a train failed: " + response.statusCode() + " " + response.body());
+            }
+            trains.add(new Train(objectMapper.readTree(response.body()).get("trainId").asLong(), source, fare));
+        }
+        return trains;
+    }
+
+    // Registration is not part of the rush; users sign up beforehand, directly on user-service
+    private void seedUsers(int users) throws InterruptedException, ExecutionException {
+        String userService = "http://localhost:" + scenario.getInt("user.port");
+        Semaphore inFlight = new Semaphore(32);
+        List<Future<?>> registrations = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                inFlight.acquire();
+                registrations.add(executor.submit(() -> {
+                    try {
+                        Map<String, Object> body = Map.of(
+                                "fullName", "Rush User " + user,
+                                "email", email(user),
+                                "phone", String.format("9%09d", user),
+                                "password", PASSWORD,
+                                "role", "USER");
+                        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(userService + "/api/users/register"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Registering " + email(user) + " failed: " + response.body());
+                        }
+                        return null;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        for (Future<?> registration : registrations) {
+            registration.get();
+        }
+    }
+
+    private long burst(int users, List<Train> trains, FakeRazorpay razorpay) throws InterruptedException {
+        int iterations = scenario.getInt("iterations");
+        long rampMs = scenario.getInt("ramp-ms");
+        CountDownLatch gate = new CountDownLatch(1);
+        long started;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                long delayMs = users > 1 ? rampMs * user / (users - 1) : 0;
+                executor.submit(() -> {
+                    gate.await();
+                    if (delayMs > 0) {
+                        Thread.sleep(delayMs);
+                    }
+                    for (int k = 0; k < iterations; k++) {
+                        journey(user, trains.get((user + k) % trains.size()), razorpay);
+                    }
+                    return null;
+                });
+            }
+            started = System.nanoTime();
+            gate.countDown();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private void journey(int user, Train train, FakeRazorpay razorpay) throws InterruptedException {
+        try {
+            JsonNode login = call("login", HttpRequest.newBuilder(URI.create(gateway + "/api/users/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("email", email(user), "password", PASSWORD))));
+            if (login == null) {
+                return;
+            }
+            String bearer = "Bearer " + login.get("token").asText();
+            think();
+
+            if (call("search", HttpRequest.newBuilder(URI.create(gateway + "/trains/search?keyword="
+                    + URLEncoder.encode(train.source(), StandardCharsets.UTF_8)))
+                    .header("Authorization", bearer).GET()) == null) {
+                return;
+            }
+            think();
+
+            if (call("availability", HttpRequest.newBuilder(URI.create(gateway + "/tickets/availability/" + train.id()
+                    + "?date=" + journeyDate))
+                    .header("Authorization", bearer).GET()) == null) {
+                return;
+            }
+            think();
+
+            int seats = scenario.getInt("seats-per-booking");
+            int amountRupees = train.fareRupees() * seats;
+            JsonNode order = call("create_order", HttpRequest.newBuilder(URI.create(gateway + "/createOrder?amount="
+                    + amountRupees * 100))
+                    .header("Authorization", bearer)
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            if (order == null) {
+                return;
+            }
+            String orderId = order.asText();
+            FakeRazorpay.Payment payment = razorpay.checkout(orderId);
+
+            Map<String, Object> booking = new LinkedHashMap<>();
+            booking.put("userEmail", email(user));
+            booking.put("trainId", train.id());
+            booking.put("fullName", "Rush User " + user);
+            booking.put("seatCount", seats);
+            booking.put("age", 30);
+            booking.put("email", email(user));
+            booking.put("date", journeyDate.toString());
+            booking.put("orderId", orderId);
+            booking.put("paymentId", payment.paymentId());
+            booking.put("razorpaySignature", payment.signature());
+            booking.put("amount", amountRupees);
+            JsonNode ticket = call("book", HttpRequest.newBuilder(URI.create(gateway + "/tickets/book/" + train.id()))
+                    .header("Authorization", bearer)
+                    .header("Content-Type", "application/json")
+                    .POST(json(booking)));
+            if (ticket != null) {
+                recorder.count("ticket " + ticket.path("status").asText("UNKNOWN"));
+            }
+        } catch (IOException e) {
+            recorder.count("journey aborted: " + e.getClass().getSimpleName());
+        }
+    }
+
+    // Times one request; returns the parsed body, or null after recording a failed status
+    private JsonNode call(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = send(request);
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean ok = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - start, ok);
+        if (!ok) {
+            recorder.count(endpoint + " HTTP " + response.statusCode());
+            return null;
+        }
+        String body = response.body();
+        // createOrder answers with a bare order id
+        return body.startsWith("{") || body.startsWith("[") ? objectMapper.readTree(body) : objectMapper.getNodeFactory().textNode(body);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+    }
+
+    private void think() throws InterruptedException {
+        int thinkMs = scenario.getInt("think-ms");
+        if (thinkMs > 0) {
+            Thread.sleep(thinkMs);
+        }
+    }
+
+    private static String email(int user) {
+        return "rush" + user + "@loadtest.local";
+    }
+}
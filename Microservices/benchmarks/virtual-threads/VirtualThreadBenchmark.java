@@ -0,0 +1,209 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares platform and virtual request threads for a service whose handlers
+ * block on downstream calls, the way ticket-service blocks on Feign calls to
+ * train-service and payment-service.
+ *
+ * A downstream server answers after a fixed delay. The service under test
+ * handles each request by making a blocking call to it, on either a fixed
+ * pool of platform threads (Tomcat's default of 200) or one virtual thread
+ * per request. A closed-loop load generator keeps the given number of
+ * clients busy and reports throughput and latency percentiles.
+ *
+ * Run with Java 21: java VirtualThreadBenchmark.java --concurrency=2000
+ */
+public class VirtualThreadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "2000"));
+        int platformThreads = Integer.parseInt(options.getOrDefault("platform-threads", "200"));
+        int downstreamMs = Integer.parseInt(options.getOrDefault("downstream-ms", "50"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "20"));
+        String mode = options.getOrDefault("mode", "both");
+
+        HttpServer downstream = startDownstream(downstreamMs);
+        URI downstreamUri = URI.create("http://127.0.0.1:" + downstream.getAddress().getPort() + "/downstream");
+        System.out.printf("concurrency=%d downstream=%dms platform-threads=%d duration=%ds%n",
+                concurrency, downstreamMs, platformThreads, durationSeconds);
+        System.out.printf("%-9s %12s %9s %9s %9s %9s %7s%n", "mode", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        try {
+            if (mode.equals("both") || mode.equals("platform")) {
+                run("platform", Executors.newFixedThreadPool(platformThreads), downstreamUri,
+                        concurrency, warmupSeconds, durationSeconds);
+            }
+            if (mode.equals("both") || mode.equals("virtual")) {
+                run("virtual", Executors.newVirtualThreadPerTaskExecutor(), downstreamUri,
+                        concurrency, warmupSeconds, durationSeconds);
+            }
+        } finally {
+            downstream.stop(0);
+        }
+    }
+
+    private static void run(String mode, ExecutorService requestThreads, URI downstreamUri,
+                            int concurrency, int warmupSeconds, int durationSeconds) throws Exception {
+        HttpServer service = startService(requestThreads, downstreamUri);
+        URI serviceUri = URI.create("http://127.0.0.1:" + service.getAddress().getPort() + "/book");
+        try {
+            load(serviceUri, concurrency, warmupSeconds);
+            Result result = load(serviceUri, concurrency, durationSeconds);
+            System.out.printf("%-9s %12.0f %9.1f %9.1f %9.1f %9.1f %7d%n", mode,
+                    result.completed / (double) durationSeconds,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(0.999), result.percentile(1.0),
+                    result.errors);
+        } finally {
+            service.stop(0);
+            requestThreads.shutdownNow();
+        }
+    }
+
+    // Stands in for train-service or payment-service: a fixed delay per call, never the bottleneck
+    private static HttpServer startDownstream(int delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 8192);
+        server.createContext("/downstream", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"available\":true}");
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    // Stands in for ticket-service: each request blocks its thread on one downstream call
+    private static HttpServer startService(ExecutorService requestThreads, URI downstreamUri) throws IOException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest call = HttpRequest.newBuilder(downstreamUri).timeout(Duration.ofSeconds(30)).GET().build();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 8192);
+        server.createContext("/book", exchange -> {
+            try {
+                String body = client.send(call, HttpResponse.BodyHandlers.ofString()).body();
+                respond(exchange, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+            }
+        });
+        server.setExecutor(requestThreads);
+        server.start();
+        return server;
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Closed loop: every client sends its next request as soon as the previous one returns
+    private static Result load(URI serviceUri, int concurrency, int seconds) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(serviceUri).timeout(Duration.ofSeconds(60)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<long[]> samples = new ArrayList<>(concurrency);
+        AtomicLong errors = new AtomicLong();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Latencies latencies = new Latencies();
+            clients.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - started);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                synchronized (samples) {
+                    samples.add(latencies.toArray());
+                }
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        return new Result(samples, errors.get());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Latencies {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class Result {
+        private final long[] sorted;
+        private final long completed;
+        private final long errors;
+
+        Result(List<long[]> samples, long errors) {
+            this.sorted = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            this.completed = sorted.length;
+            this.errors = errors;
+        }
+
+        double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -44,6 +44,8 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, TicketEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // Continues the booking's trace from the traceparent header ticket-service sent
+        factory.getContainerProperties().setObservationEnabled(true);
         return factory;
     }
 }
@@ -5,11 +5,9 @@ import com.microservice.exception.PaymentException;
 import com.microservice.model.Payment;
 import com.microservice.repository.PaymentRepository;
 import com.microservice.service.PaymentService;
+import com.microservice.service.RazorpayGateway;
 import com.microservice.util.Utils;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
-import com.razorpay.Refund;
 
 import jakarta.validation.constraints.Min;
 
@@ -24,7 +22,7 @@ public class PaymentServiceImplementation implements PaymentService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentServiceImplementation.class);
 
     @Autowired
-    private RazorpayClient razorpayClient;
+    private RazorpayGateway razorpayGateway;
     @Autowired
     private RazorpayConfig razorpayConfig;
     @Autowired
@@ -37,12 +35,10 @@ public class PaymentServiceImplementation implements PaymentService {
             orderReq.put("amount", amount);
             orderReq.put("currency", "INR");
             orderReq.put("payment_capture", 1);
-            Order order = razorpayClient.orders.create(orderReq);
+            String orderId = razorpayGateway.createOrder(orderReq);
 
             // Save order to DB
             Payment payment = new Payment();
-            Object orderIdObj = order.get("id");
-            String orderId = (orderIdObj != null) ? orderIdObj.toString() : "";
             payment.setOrderId(orderId);
             payment.setAmount(amount/100);
             payment.setStatus("CREATED");
@@ -80,7 +76,7 @@ public class PaymentServiceImplementation implements PaymentService {
     try {
         JSONObject refundRequest = new JSONObject();
         refundRequest.put("amount", refundAmount); // in paise
-        Refund refund = razorpayClient.payments.refund(paymentId, refundRequest);
+        String refundId = razorpayGateway.refund(paymentId, refundRequest);
 
         // Optionally update payment status in DB
         Payment payment = paymentRepository.findByPaymentId(paymentId);
@@ -89,8 +85,8 @@ public class PaymentServiceImplementation implements PaymentService {
             paymentRepository.save(payment);
         }
 
-        logger.info("Refund processed for paymentId {}: refundId={}", paymentId, refund.get("id"));
-        return refund.get("id");
+        logger.info("Refund processed for paymentId {}: refundId={}", paymentId, refundId);
+        return refundId;
     } catch (RazorpayException e) {
         logger.error("Refund failed: {}", e.getMessage());
         throw new PaymentException("Refund failed: " + e.getMessage());
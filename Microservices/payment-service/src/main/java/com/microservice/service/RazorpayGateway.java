@@ -0,0 +1,82 @@
+package com.microservice.service;
+
+import com.microservice.config.RazorpayConfig;
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Refund;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Creates Razorpay orders and refunds. Calls go through the Razorpay SDK,
+ * whose API host is fixed. With razorpay.api-url set, the same REST calls
+ * go to that URL instead, so a stand-in can serve them, e.g. the load-test
+ * harness in Microservices/benchmarks/load-test.
+ */
+@Component
+public class RazorpayGateway {
+
+    @Autowired
+    private RazorpayClient razorpayClient;
+    @Autowired
+    private RazorpayConfig razorpayConfig;
+
+    @Value("${razorpay.api-url:}")
+    private String apiUrl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public String createOrder(JSONObject orderRequest) throws RazorpayException {
+        if (apiUrl.isBlank()) {
+            Order order = razorpayClient.orders.create(orderRequest);
+            Object orderId = order.get("id");
+            return orderId != null ? orderId.toString() : "";
+        }
+        return post("/v1/orders", orderRequest).optString("id");
+    }
+
+    public String refund(String paymentId, JSONObject refundRequest) throws RazorpayException {
+        if (apiUrl.isBlank()) {
+            Refund refund = razorpayClient.payments.refund(paymentId, refundRequest);
+            return refund.get("id");
+        }
+        return post("/v1/payments/" + paymentId + "/refund", refundRequest).optString("id");
+    }
+
+    private JSONObject post(String path, JSONObject body) throws RazorpayException {
+        String credentials = razorpayConfig.getKeyId() + ":" + razorpayConfig.getSecret();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new RazorpayException("HTTP " + response.statusCode() + " from " + path + ": " + response.body());
+            }
+            return new JSONObject(response.body());
+        } catch (IOException e) {
+            throw new RazorpayException(path + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException(path + " interrupted");
+        }
+    }
+}
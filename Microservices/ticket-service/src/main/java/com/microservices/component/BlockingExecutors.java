@@ -0,0 +1,38 @@
+package com.microservices.component;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Worker pools for background work that blocks on Feign or JDBC calls.
+ * The pool size is the concurrency cap toward the downstream service either
+ * way; with {@code spring.threads.virtual.enabled=true} the workers are
+ * virtual threads, so a blocked call parks instead of holding an OS thread.
+ * Tomcat, {@code @Async} and {@code @Scheduled} follow the same property
+ * through Spring Boot, and Feign calls run on whichever thread makes them.
+ */
+@Component
+public class BlockingExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingExecutors.class);
+
+    private final boolean virtual;
+
+    public BlockingExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+        logger.info("Blocking work runs on {} threads", virtual ? "virtual" : "platform");
+    }
+
+    public ExecutorService fixed(String name, int threads) {
+        ThreadFactory factory = virtual
+                ? Thread.ofVirtual().name(name + "-", 0).factory()
+                : Thread.ofPlatform().name(name + "-", 0).factory();
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
@@ -0,0 +1,148 @@
+package com.microservices.component;
+
+import com.microservices.dto.SeatAdjustmentRequest;
+import com.microservices.dto.TrainDTO;
+import com.microservices.feign.TrainClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TrainClient} that keeps train details in a bounded TTL cache, so the
+ * booking path does not call train-service for data that rarely changes.
+ * Entries are dropped when train-service reports a change and whenever this
+ * service itself moves the train's seat counters. Seat calls pass straight through.
+ * Lookups are counted as ticket.train.cache.requests tagged hit or miss,
+ * alongside ticket.train.cache.evictions and the gauge ticket.train.cache.size;
+ * the hit rate is worked out from the counters at query time.
+ */
+@Primary
+@Component
+public class CachingTrainClient implements TrainClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingTrainClient.class);
+
+    private final TrainClient delegate;
+    private final ConcurrentHashMap<Long, Entry> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public CachingTrainClient(@Qualifier("remoteTrainClient") TrainClient delegate,
+                              @Value("${ticket.train-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${ticket.train-cache.max-size:1000}") int maxSize,
+                              MeterRegistry registry) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+        this.evictions = Counter.builder("ticket.train.cache.evictions")
+                .description("Train cache entries dropped by invalidation or to make room")
+                .register(registry);
+        Gauge.builder("ticket.train.cache.size", cache, Map::size)
+                .description("Trains currently held in the cache")
+                .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("ticket.train.cache.requests")
+                .description("Train lookups served by the cache")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public TrainDTO getTrainById(Long id) {
+        long now = System.nanoTime();
+        Entry entry = cache.get(id);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            hits.increment();
+            return entry.train;
+        }
+        misses.increment();
+        TrainDTO train = delegate.getTrainById(id);
+        if (cache.size() >= maxSize && !cache.containsKey(id)) {
+            makeRoom(now);
+        }
+        cache.put(id, new Entry(train, now));
+        return train;
+    }
+
+    @Override
+    public String decreaseSeats(Long trainId, int count) {
+        try {
+            return delegate.decreaseSeats(trainId, count);
+        } finally {
+            invalidate(trainId);
+        }
+    }
+
+    @Override
+    public String increaseSeats(Long trainId, int count) {
+        try {
+            return delegate.increaseSeats(trainId, count);
+        } finally {
+            invalidate(trainId);
+        }
+    }
+
+    @Override
+    public String adjustSeats(List<SeatAdjustmentRequest> adjustments) {
+        try {
+            return delegate.adjustSeats(adjustments);
+        } finally {
+            adjustments.forEach(adjustment -> invalidate(adjustment.getTrainId()));
+        }
+    }
+
+    public void invalidate(Long trainId) {
+        if (trainId != null && cache.remove(trainId) != null) {
+            evictions.increment();
+        }
+    }
+
+    // Drops expired entries; if none expired, drops the oldest one
+    private void makeRoom(long now) {
+        Long oldestId = null;
+        long oldestLoadedAt = Long.MAX_VALUE;
+        int before = cache.size();
+        for (Map.Entry<Long, Entry> e : cache.entrySet()) {
+            long loadedAt = e.getValue().loadedAt;
+            if (now - loadedAt >= ttlNanos) {
+                cache.remove(e.getKey(), e.getValue());
+            } else if (loadedAt < oldestLoadedAt) {
+                oldestLoadedAt = loadedAt;
+                oldestId = e.getKey();
+            }
+        }
+        if (cache.size() >= maxSize && oldestId != null) {
+            cache.remove(oldestId);
+        }
+        evictions.increment(Math.max(0, before - cache.size()));
+        logger.debug("Train cache full, evicted {} entries", before - cache.size());
+    }
+
+    private static final class Entry {
+        private final TrainDTO train;
+        private final long loadedAt;
+
+        private Entry(TrainDTO train, long loadedAt) {
+            this.train = train;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
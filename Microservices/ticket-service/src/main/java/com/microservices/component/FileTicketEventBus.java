@@ -0,0 +1,110 @@
+package com.microservices.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.TicketBookedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event bus that appends events to an NDJSON file for an external shipper
+ * or a later replay. Bookings only enqueue; one writer thread drains the
+ * queue in batches and flushes once per batch. Events still queued when the
+ * process dies are lost, as with any asynchronous publisher.
+ */
+@Component
+@ConditionalOnProperty(name = "ticket.events.bus", havingValue = "file")
+public class FileTicketEventBus implements TicketEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileTicketEventBus.class);
+    private static final int MAX_BATCH = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final BlockingQueue<TicketBookedEvent> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FileTicketEventBus(ObjectMapper objectMapper,
+                              @Value("${ticket.events.file.path:events/ticket-events.ndjson}") String path,
+                              @Value("${ticket.events.queue-capacity:10000}") int capacity) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "ticket-events-file");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void publish(TicketBookedEvent event) {
+        if (!queue.offer(event)) {
+            logger.warn("Ticket event queue full, dropped event for {}", event.getTicketNumber());
+        }
+    }
+
+    private void drain() {
+        List<TicketBookedEvent> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            logger.error("Cannot create event directory for {}: {}", path, e.getMessage());
+        }
+        while (running || !queue.isEmpty()) {
+            try {
+                TicketBookedEvent first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TicketBookedEvent> batch) {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (TicketBookedEvent event : batch) {
+                try {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                } catch (JsonProcessingException e) {
+                    logger.error("Could not serialize ticket event for {}: {}", event.getTicketNumber(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not append {} ticket events to {}: {}", batch.size(), path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.microservices.component;
+
+import com.microservices.dto.TicketBookedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event bus for deployments without Kafka: events are handed to a
+ * background thread and delivered to @EventListener methods for
+ * TicketBookedEvent inside ticket-service. The queue is bounded; when it is
+ * full the event is dropped with a warning rather than slowing bookings.
+ */
+@Component
+@ConditionalOnProperty(name = "ticket.events.bus", havingValue = "in-process", matchIfMissing = true)
+public class InProcessTicketEventBus implements TicketEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessTicketEventBus.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor dispatcher;
+
+    public InProcessTicketEventBus(ApplicationEventPublisher eventPublisher,
+                                   @Value("${ticket.events.queue-capacity:10000}") int capacity) {
+        this.eventPublisher = eventPublisher;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                r -> new Thread(r, "ticket-events"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Override
+    public void publish(TicketBookedEvent event) {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    eventPublisher.publishEvent(event);
+                } catch (RuntimeException e) {
+                    logger.error("Ticket event listener failed for {}: {}", event.getTicketNumber(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Ticket event queue full, dropped event for {}", event.getTicketNumber());
+        }
+    }
+}
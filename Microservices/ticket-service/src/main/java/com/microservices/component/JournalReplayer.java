@@ -0,0 +1,84 @@
+package com.microservices.component;
+
+import com.microservices.domain.TicketStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seeds seat availability, the waitlists and the revenue counters from the
+ * ticket journal instead of querying the ticket tables at startup. The
+ * journal is folded to the latest entry per ticket, and each projection gets
+ * rows in the shape its repository query returns. Enabled with
+ * ticket.journal.replay-on-startup=true, which also stops the projections
+ * from seeding themselves from the database. Startup fails unless
+ * ticket.journal.enabled=true as well, since a disabled journal replays
+ * nothing and the service would start with every train empty. The replay
+ * runs while the context starts, before the web server takes requests, so
+ * no booking can change a projection mid-load.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ticket.journal.replay-on-startup", havingValue = "true")
+public class JournalReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalReplayer.class);
+
+    private final TicketJournal ticketJournal;
+    private final SeatInventory seatInventory;
+    private final Waitlist waitlist;
+    private final TicketStats ticketStats;
+
+    @PostConstruct
+    public void replay() throws IOException {
+        if (!ticketJournal.isEnabled()) {
+            throw new IllegalStateException("ticket.journal.replay-on-startup=true requires ticket.journal.enabled=true");
+        }
+        long started = System.nanoTime();
+        Map<Long, TicketJournal.Entry> latest = new HashMap<>();
+        long records = ticketJournal.replay(entry -> latest.put(entry.ticketId(), entry));
+        long replayed = System.nanoTime();
+
+        LocalDate today = LocalDate.now();
+        Map<Long, Object[]> seats = new HashMap<>();
+        Map<String, Object[]> aggregates = new HashMap<>();
+        List<Object[]> waiting = new ArrayList<>();
+        for (TicketJournal.Entry ticket : latest.values()) {
+            if (ticket.trainId() == null || ticket.date() == null || ticket.to() == null) {
+                continue;
+            }
+            boolean upcoming = !ticket.date().isBefore(today);
+            if (upcoming && ticket.to() == TicketStatus.CONFIRMED) {
+                Object[] row = seats.computeIfAbsent((ticket.trainId() << 20) | ticket.date().toEpochDay(),
+                        k -> new Object[]{ticket.trainId(), ticket.date(), 0L});
+                row[2] = (Long) row[2] + ticket.seats();
+            }
+            if (upcoming && ticket.to() == TicketStatus.WAITING) {
+                waiting.add(new Object[]{ticket.ticketId(), ticket.trainId(), ticket.date(), ticket.seats(),
+                        ticket.waitlistedAt()});
+            }
+            Object[] row = aggregates.computeIfAbsent(ticket.trainId() + ":" + ticket.date() + ":" + ticket.to(),
+                    k -> new Object[]{ticket.trainId(), ticket.date(), ticket.to(), 0L, 0L, 0L, 0.0});
+            row[3] = (Long) row[3] + 1;
+            row[4] = (Long) row[4] + ticket.seats();
+            row[5] = (Long) row[5] + ticket.amount();
+            row[6] = (Double) row[6] + ticket.feePaise() / 100.0;
+        }
+
+        seatInventory.load(new ArrayList<>(seats.values()), today);
+        waitlist.load(waiting);
+        ticketStats.load(new ArrayList<>(aggregates.values()));
+        logger.info("Projections rebuilt from {} journal records ({} tickets): replay {} ms, total {} ms",
+                records, latest.size(), (replayed - started) / 1_000_000, (System.nanoTime() - started) / 1_000_000);
+    }
+}
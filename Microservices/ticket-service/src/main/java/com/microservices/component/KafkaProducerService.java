@@ -1,48 +1,43 @@
-// package com.microservices.component;
-//
-// import org.springframework.beans.factory.annotation.Autowired;
-// import org.springframework.kafka.core.KafkaTemplate;
-// import org.springframework.stereotype.Component;
-//
-// import java.util.HashMap;
-// import java.util.Map;
-//
-// @Component
-// public class KafkaProducerService {
-//
-//     @Autowired
-//     private KafkaTemplate<String, Object> kafkaTemplate;
-//
-//     private static final String TOPIC = "ticket-booked";
-//
-//     public void sendTicketBookedEvent(String email, String ticketId, String train, String date) {
-//         Map<String, Object> message = new HashMap<>();
-//         message.put("email", email);
-//         message.put("ticketId", ticketId);
-//         message.put("train", train);
-//         message.put("date", date);
-//
-//         kafkaTemplate.send(TOPIC, message);
-//     }
-// }
-
-
 package com.microservices.component;
 
 import com.microservices.dto.TicketBookedEvent;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+// Kafka event bus: send() only appends to the producer's batch buffer; delivery is reported on the callback
 @Component
-public class KafkaProducerService {
-
-    @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+@ConditionalOnProperty(name = "ticket.events.bus", havingValue = "kafka")
+public class KafkaProducerService implements TicketEventBus {
 
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
     private static final String TOPIC = "ticket-booked";
 
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public KafkaProducerService(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @Override
+    public void publish(TicketBookedEvent event) {
+        sendTicketBookedEvent(event);
+    }
+
+    // notification-service answers every ticket-booked event with a confirmation email and PDF
+    @Override
+    public boolean sendsConfirmations() {
+        return true;
+    }
+
+    // Keyed by PNR, so every event of one ticket lands on the same partition in order
     public void sendTicketBookedEvent(TicketBookedEvent event) {
-        kafkaTemplate.send(TOPIC, event);
+        kafkaTemplate.send(TOPIC, event.getTicketNumber(), event).whenComplete((result, error) -> {
+            if (error != null) {
+                logger.error("Kafka send failed for ticket {}: {}", event.getTicketNumber(), error.getMessage());
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package com.microservices.component;
+
+import com.microservices.domain.OutboxStatus;
+import com.microservices.model.OutboxEmail;
+import com.microservices.repository.OutboxEmailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for customer emails. Callers enqueue a row inside
+ * their own transaction; a scheduled dispatcher claims due rows in batches
+ * and sends each batch over a single SMTP connection, retrying failures
+ * with exponential backoff. As in {@link RefundQueue}, claiming and settling
+ * are two short transactions with the SMTP exchange between them, and a
+ * claimed row is leased by pushing its next attempt past the lease.
+ */
+@Component
+public class MailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutbox.class);
+
+    private final OutboxEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final StageTimers stageTimers;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ticket.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ticket.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${ticket.mail.outbox.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${ticket.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    // Must comfortably exceed the time one batch takes over SMTP
+    @Value("${ticket.mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public MailOutbox(OutboxEmailRepository outboxRepository, JavaMailSender mailSender, StageTimers stageTimers,
+                      PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.stageTimers = stageTimers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Joins the caller's transaction, so the email exists only if the booking commits
+    public void enqueue(String recipient, String subject, String body) {
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(OutboxStatus.PENDING);
+        email.setCreatedAt(LocalDateTime.now());
+        email.setNextAttemptAt(email.getCreatedAt());
+        outboxRepository.save(email);
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+        int sent;
+        do {
+            sent = dispatchBatch();
+        } while (sent == batchSize);
+    }
+
+    // Returns how many rows were claimed, so the caller keeps draining while batches come back full
+    private int dispatchBatch() {
+        List<OutboxEmail> batch = transactionTemplate.execute(status -> claim());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEmail email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        try {
+            // JavaMailSender sends a varargs batch over one connected transport; SMTP left the booking path with the outbox
+            stageTimers.time("mail", "smtp_send", () -> mailSender.send(messages));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                logger.error("Outbox batch of {} failed: {}", batch.size(), e.getMessage());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Exception failure = failed.isEmpty() ? e : failed.get(messages[i]);
+                if (failure != null) {
+                    failures.put(batch.get(i).getId(), failure);
+                }
+            }
+        } catch (MailException e) {
+            logger.error("Outbox batch of {} failed: {}", batch.size(), e.getMessage());
+            batch.forEach(email -> failures.put(email.getId(), e));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> settle(batch, failures));
+        logger.info("Outbox batch: {} sent, {} to retry", batch.size() - failures.size(), failures.size());
+        return batch.size();
+    }
+
+    // Counts the attempt up front and leases the rows, so a crash mid-send still backs off
+    private List<OutboxEmail> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> batch = outboxRepository.claimDue(now, batchSize);
+        for (OutboxEmail email : batch) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return outboxRepository.saveAll(batch);
+    }
+
+    private void settle(List<OutboxEmail> claimed, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> batch = outboxRepository.findAllById(claimed.stream().map(OutboxEmail::getId).toList());
+        for (OutboxEmail email : batch) {
+            if (email.getStatus() != OutboxStatus.PENDING) {
+                // The lease ran out and another instance already settled this row
+                continue;
+            }
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                email.setStatus(OutboxStatus.SENT);
+                email.setSentAt(now);
+            } else {
+                scheduleRetry(email, failure);
+            }
+        }
+        outboxRepository.saveAll(batch);
+    }
+
+    private void scheduleRetry(OutboxEmail email, Exception e) {
+        int attempts = email.getAttempts();
+        String error = String.valueOf(e.getMessage());
+        email.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            email.setStatus(OutboxStatus.FAILED);
+            logger.warn("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts);
+            return;
+        }
+        long delay = retryBaseSeconds << Math.min(attempts - 1, 10);
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+    }
+
+    @Scheduled(cron = "${ticket.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        logger.info("Purged {} sent outbox emails", purged);
+    }
+}
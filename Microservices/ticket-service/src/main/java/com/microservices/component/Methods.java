@@ -1,15 +1,15 @@
 package com.microservices.component;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 @Component
+@RequiredArgsConstructor
 public class Methods {
+    private final TicketNumberGenerator ticketNumberGenerator;
+
     public String generateTicketNumber() {
-        String uuid = UUID.randomUUID().toString().replace("-", "");
-        String shortId = uuid.substring(0, 8).toUpperCase();
-        return "TCKT-" + shortId;
+        return ticketNumberGenerator.next();
     }
     public int sub(int a, int b){
     return a-b;
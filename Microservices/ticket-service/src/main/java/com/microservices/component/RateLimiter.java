@@ -0,0 +1,32 @@
+package com.microservices.component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Evenly spaced permits, e.g. to cap calls per second to a downstream service.
+ * Each caller reserves the next free slot with one atomic update and sleeps
+ * until it comes up; there is no lock and no background thread.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() {
+        long now = System.nanoTime();
+        long previous = nextFree.getAndAccumulate(now, (free, time) -> Math.max(free, time) + intervalNanos);
+        long wait = Math.max(previous, now) - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.microservices.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of order ids booked through this instance. A negative answer
+ * means the order was not booked here recently, so the booking path can skip
+ * the duplicate pre-read and let the unique order_id constraint catch the rare
+ * retry that landed elsewhere. Two generations rotate once the current one is
+ * full, so the false-positive rate stays bounded without ever clearing the
+ * whole history at once.
+ */
+@Component
+public class RecentOrders {
+
+    private static final int HASHES = 5;
+
+    private final int bits;
+    private final long generationCapacity;
+    private final AtomicReference<Generation[]> generations;
+
+    public RecentOrders(@Value("${ticket.idempotency.bloom-bits:8388608}") int bits,
+                        @Value("${ticket.idempotency.generation-capacity:500000}") long generationCapacity) {
+        this.bits = Integer.highestOneBit(Math.max(bits, 64));
+        this.generationCapacity = generationCapacity;
+        this.generations = new AtomicReference<>(new Generation[]{new Generation(this.bits), new Generation(this.bits)});
+    }
+
+    // False means definitely not booked here recently; true means look it up
+    public boolean mightContain(String orderId) {
+        long[] hashes = hashes(orderId);
+        Generation[] current = generations.get();
+        return current[0].contains(hashes) || current[1].contains(hashes);
+    }
+
+    public void add(String orderId) {
+        Generation[] current = generations.get();
+        current[0].add(hashes(orderId));
+        if (current[0].count.sum() >= generationCapacity) {
+            // Only one caller wins the swap; the others keep writing to the generation they saw
+            generations.compareAndSet(current, new Generation[]{new Generation(bits), current[0]});
+        }
+    }
+
+    private static long[] hashes(String orderId) {
+        byte[] data = orderId.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        long h2 = mix(h1 ^ data.length);
+        h1 = mix(h1);
+        return new long[]{h1, h2 | 1};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final int mask;
+        private final LongAdder count = new LongAdder();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.mask = bits - 1;
+        }
+
+        private boolean contains(long[] hashes) {
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) ((hashes[0] + i * hashes[1]) & mask);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long[] hashes) {
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) ((hashes[0] + i * hashes[1]) & mask);
+                long flag = 1L << bit;
+                int word = bit >>> 6;
+                long old = words.get(word);
+                while ((old & flag) == 0 && !words.compareAndSet(word, old, old | flag)) {
+                    old = words.get(word);
+                }
+            }
+            count.increment();
+        }
+    }
+}
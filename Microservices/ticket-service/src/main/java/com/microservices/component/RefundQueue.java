@@ -0,0 +1,242 @@
+package com.microservices.component;
+
+import com.microservices.domain.RefundStatus;
+import com.microservices.feign.PaymentClient;
+import com.microservices.model.RefundRequest;
+import com.microservices.model.TicketBooking;
+import com.microservices.repository.RefundRequestRepository;
+import com.microservices.repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Durable retry queue for refunds that failed on the cancellation path.
+ * Callers enqueue inside their own transaction, so the cancellation commits
+ * without waiting for payment-service. A scheduled dispatcher claims due
+ * rows in batches, retries them on a bounded pool and reschedules failures
+ * with jittered exponential backoff.
+ * <p>
+ * Claiming and settling are two short transactions; the payment calls run
+ * between them with no transaction open, so a slow payment-service does not
+ * hold row locks or a pooled connection. A claimed row is leased by pushing
+ * its next attempt past the lease, so if this instance dies mid-batch the
+ * row becomes due again for whichever instance polls next.
+ * <p>
+ * Queue depth, oldest pending age and give-ups are published as the gauges
+ * ticket.refund.queue.*, refreshed once per poll rather than on every scrape.
+ */
+@Component
+public class RefundQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefundQueue.class);
+
+    private final RefundRequestRepository refundRepository;
+    private final TicketRepository ticketRepository;
+    private final PaymentClient paymentClient;
+    private final TicketJournal ticketJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService refundExecutor;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+    @Value("${ticket.refund.queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ticket.refund.queue.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${ticket.refund.queue.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${ticket.refund.queue.retry-max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    // Must comfortably exceed the time a batch of payment calls can take
+    @Value("${ticket.refund.queue.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public RefundQueue(RefundRequestRepository refundRepository, TicketRepository ticketRepository,
+                       PaymentClient paymentClient, TicketJournal ticketJournal,
+                       PlatformTransactionManager transactionManager,
+                       BlockingExecutors executors, MeterRegistry registry,
+                       @Value("${ticket.refund.queue.concurrency:4}") int concurrency) {
+        this.refundRepository = refundRepository;
+        this.ticketRepository = ticketRepository;
+        this.paymentClient = paymentClient;
+        this.ticketJournal = ticketJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refundExecutor = executors.fixed("refund-retry", concurrency);
+        Gauge.builder("ticket.refund.queue.depth", depth, AtomicLong::get)
+                .description("Refunds waiting to be retried")
+                .register(registry);
+        Gauge.builder("ticket.refund.queue.oldest.age", this, RefundQueue::oldestPendingAgeSeconds)
+                .description("Age of the oldest refund waiting to be retried")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("ticket.refund.queue.failed", failed, AtomicLong::get)
+                .description("Refunds given up on after the last attempt")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refundExecutor.shutdownNow();
+    }
+
+    // Joins the caller's transaction; the first retry waits one base interval
+    public void enqueue(TicketBooking ticket, int amountPaise, String error) {
+        RefundRequest refund = new RefundRequest();
+        refund.setTicketId(ticket.getTicket_id());
+        refund.setPaymentId(ticket.getPaymentId());
+        refund.setAmountPaise(amountPaise);
+        refund.setStatus(RefundStatus.PENDING);
+        refund.setCreatedAt(LocalDateTime.now());
+        refund.setNextAttemptAt(refund.getCreatedAt().plusSeconds(retryBaseSeconds));
+        refund.setLastError(truncate(error));
+        refundRepository.save(refund);
+        ticket.setRefundStatus(RefundStatus.QUEUED);
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.refund.queue.poll-ms:5000}")
+    public void dispatch() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+        refreshGauges();
+    }
+
+    // Returns how many rows were claimed, so the caller keeps draining while batches come back full
+    private int dispatchBatch() {
+        List<RefundRequest> batch = transactionTemplate.execute(status -> claim());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> refundIds = new ConcurrentHashMap<>();
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(batch.size());
+        for (RefundRequest refund : batch) {
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    refundIds.put(refund.getId(), paymentClient.refundPayment(refund.getPaymentId(), refund.getAmountPaise()));
+                } catch (Exception e) {
+                    errors.put(refund.getId(), String.valueOf(e.getMessage()));
+                }
+            }, refundExecutor));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+
+        transactionTemplate.executeWithoutResult(status -> settle(batch, refundIds, errors));
+        logger.info("Refund batch: {} refunded, {} to retry or failed", refundIds.size(), batch.size() - refundIds.size());
+        return batch.size();
+    }
+
+    // Counts the attempt up front and leases the rows, so a crash before settling still backs off
+    private List<RefundRequest> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RefundRequest> batch = refundRepository.claimDue(now, batchSize);
+        for (RefundRequest refund : batch) {
+            refund.setAttempts(refund.getAttempts() + 1);
+            refund.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return refundRepository.saveAll(batch);
+    }
+
+    private void settle(List<RefundRequest> claimed, Map<Long, String> refundIds, Map<Long, String> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RefundRequest> batch = refundRepository.findAllById(claimed.stream().map(RefundRequest::getId).toList());
+        Map<Long, RefundRequest> settled = new HashMap<>();
+        for (RefundRequest refund : batch) {
+            if (refund.getStatus() != RefundStatus.PENDING) {
+                // The lease ran out and another instance already settled this row
+                continue;
+            }
+            String refundId = refundIds.get(refund.getId());
+            if (refundId != null) {
+                refund.setStatus(RefundStatus.REFUNDED);
+                refund.setRefundId(refundId);
+                refund.setCompletedAt(now);
+                settled.put(refund.getTicketId(), refund);
+            } else if (refund.getAttempts() >= maxAttempts) {
+                refund.setStatus(RefundStatus.FAILED);
+                refund.setLastError(truncate(errors.get(refund.getId())));
+                refund.setCompletedAt(now);
+                settled.put(refund.getTicketId(), refund);
+                logger.error("Giving up on refund for ticket {} after {} attempts: {}",
+                        refund.getTicketId(), refund.getAttempts(), refund.getLastError());
+            } else {
+                refund.setLastError(truncate(errors.get(refund.getId())));
+                refund.setNextAttemptAt(now.plusSeconds(backoffSeconds(refund.getAttempts())));
+            }
+        }
+        refundRepository.saveAll(batch);
+
+        // Mirror the outcome onto the tickets in one read and one batched update
+        if (!settled.isEmpty()) {
+            for (TicketBooking ticket : ticketRepository.findAllById(settled.keySet())) {
+                RefundRequest refund = settled.get(ticket.getTicket_id());
+                ticket.setRefundStatus(refund.getStatus());
+                ticket.setRefundId(refund.getRefundId());
+                ticketJournal.recordRefund(ticket);
+            }
+        }
+    }
+
+    // One grouped query per poll; the gauges read the cached values
+    private void refreshGauges() {
+        long pending = 0;
+        long gaveUp = 0;
+        LocalDateTime oldest = null;
+        for (Object[] row : refundRepository.summarizeByStatus(List.of(RefundStatus.PENDING, RefundStatus.FAILED))) {
+            if (row[0] == RefundStatus.PENDING) {
+                pending = (Long) row[1];
+                oldest = (LocalDateTime) row[2];
+            } else if (row[0] == RefundStatus.FAILED) {
+                gaveUp = (Long) row[1];
+            }
+        }
+        depth.set(pending);
+        failed.set(gaveUp);
+        oldestPending.set(oldest);
+    }
+
+    private double oldestPendingAgeSeconds() {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).getSeconds();
+    }
+
+    // Exponential backoff with jitter in [delay / 2, delay], so retries after an outage do not arrive in lockstep
+    private long backoffSeconds(int attempts) {
+        long delay = Math.min(retryBaseSeconds << Math.min(attempts, 20), retryMaxSeconds);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -0,0 +1,169 @@
+package com.microservices.component;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a connection goes to the primary or to a read replica.
+ * Only read-only transactions go to a replica, and only to one whose
+ * replication lag is within tolerance; the lag is polled in the background.
+ * A client that wrote recently reads from the primary for a short window,
+ * so a booking is visible to the same user right away. Clients are told
+ * apart by their Authorization header, or their address without one.
+ * With no replicas registered every connection goes to the primary.
+ */
+@Component
+public class ReplicaRouter {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+    private static final ThreadLocal<Boolean> forcePrimary = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile List<String> healthy = List.of();
+
+    @Value("${replica.datasource.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${replica.datasource.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    @Value("${replica.datasource.lag-check-ms:1000}")
+    private long lagCheckMs;
+
+    // Called once per replica while the routing DataSource is built
+    public synchronized void register(String name, DataSource replica) {
+        boolean first = replicas.isEmpty();
+        replicas.put(name, replica);
+        if (first) {
+            lagChecker.scheduleWithFixedDelay(this::checkLag, 0, lagCheckMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lagChecker.shutdownNow();
+    }
+
+    // Lookup key for the routing DataSource; runs when a transaction first touches the database
+    public String lookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String client = currentClient();
+        if (!readOnly) {
+            if (client != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                lastWrites.put(client, System.currentTimeMillis());
+            }
+            return PRIMARY;
+        }
+        if (Boolean.TRUE.equals(forcePrimary.get())) {
+            return PRIMARY;
+        }
+        if (client != null) {
+            Long lastWrite = lastWrites.get(client);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesMs) {
+                return PRIMARY;
+            }
+        }
+        List<String> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Runs a read that must see the latest commit, e.g. a row another request has just inserted
+    public <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = forcePrimary.get();
+        forcePrimary.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                forcePrimary.remove();
+            } else {
+                forcePrimary.set(previous);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicas", replicas.keySet());
+        stats.put("healthy", healthy);
+        stats.put("lagMillis", new LinkedHashMap<>(lagMillis));
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("recentWriters", lastWrites.size());
+        return stats;
+    }
+
+    private void checkLag() {
+        List<String> ok = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try (Connection connection = replica.getValue().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                long lag = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                lagMillis.put(replica.getKey(), lag);
+                if (lag <= maxLagMs) {
+                    ok.add(replica.getKey());
+                }
+            } catch (SQLException e) {
+                lagMillis.remove(replica.getKey());
+                logger.warn("Replica {} unreachable, reads go elsewhere: {}", replica.getKey(), e.getMessage());
+            }
+        }
+        if (!ok.equals(healthy)) {
+            logger.info("Replicas serving reads: {}", ok);
+        }
+        healthy = List.copyOf(ok);
+        long expired = System.currentTimeMillis() - readYourWritesMs;
+        lastWrites.values().removeIf(time -> time < expired);
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String authorization = request.getHeader("Authorization");
+        // A hash is enough to tell clients apart; a collision only sends a read to the primary
+        return authorization != null ? "auth:" + authorization.hashCode() : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,183 @@
+package com.microservices.component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seats held for a user between seat selection and payment. A hold counts
+ * against availability together with the confirmed seats in {@link SeatInventory},
+ * so the seats cannot be sold twice while the user pays. Holds expire on a
+ * {@link HashedWheelTimer}; nothing polls the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatHoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldRegistry.class);
+
+    private static final int ACTIVE = 0;
+    private static final int CONVERTING = 1;
+    private static final int DONE = 2;
+
+    private final SeatInventory seatInventory;
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    // Seats under an active hold per (train, date); a key goes away when its last hold ends
+    private final ConcurrentHashMap<Long, Integer> heldSeats = new ConcurrentHashMap<>();
+    private HashedWheelTimer timer;
+
+    @Value("${ticket.hold.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${ticket.hold.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${ticket.hold.wheel-size:512}")
+    private int wheelSize;
+
+    @PostConstruct
+    public void start() {
+        timer = new HashedWheelTimer("seat-hold-expiry", tickMs, TimeUnit.MILLISECONDS, wheelSize);
+        timer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Holds seats if the train still has them on that date, counting confirmed
+     * seats and other holds. Returns null when there are not enough seats.
+     */
+    public Hold hold(Long trainId, LocalDate date, int seats, int capacity, String userEmail) {
+        // Checked under the inventory's lock, so a concurrent booking cannot take the same seats
+        boolean held = seatInventory.locked(trainId, date, () -> {
+            if (seatInventory.getBookedSeats(trainId, date) + getHeldSeats(trainId, date) + seats > capacity) {
+                return false;
+            }
+            heldSeats.merge(key(trainId, date), seats, Integer::sum);
+            return true;
+        });
+        if (!held) {
+            return null;
+        }
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), trainId, date, seats, userEmail,
+                Instant.now().plusSeconds(TimeUnit.MINUTES.toSeconds(ttlMinutes)));
+        hold.timeout = timer.schedule(() -> expire(hold), ttlMinutes, TimeUnit.MINUTES);
+        holds.put(hold.getHoldId(), hold);
+        logger.debug("Held {} seats on train {} for {} until {}", seats, trainId, date, hold.getExpiresAt());
+        return hold;
+    }
+
+    public int getHeldSeats(Long trainId, LocalDate date) {
+        return heldSeats.getOrDefault(key(trainId, date), 0);
+    }
+
+    /**
+     * Claims an active hold for a booking by the user who placed it. The hold
+     * is removed when the surrounding transaction commits and becomes active
+     * again on rollback. Returns null if the hold does not exist, belongs to
+     * another user, has expired or is already in use.
+     */
+    public Hold claim(String holdId, String userEmail) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !Objects.equals(hold.getUserEmail(), userEmail)
+                || !hold.state.compareAndSet(ACTIVE, CONVERTING)) {
+            return null;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        finish(hold);
+                    } else {
+                        unclaim(hold);
+                    }
+                }
+            });
+        } else {
+            finish(hold);
+        }
+        return hold;
+    }
+
+    // Gives the seats of a hold back before it expires
+    public boolean release(String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.state.compareAndSet(ACTIVE, DONE)) {
+            return false;
+        }
+        hold.timeout.cancel();
+        drop(hold);
+        return true;
+    }
+
+    private void expire(Hold hold) {
+        if (hold.state.compareAndSet(ACTIVE, DONE)) {
+            drop(hold);
+            logger.debug("Hold {} on train {} expired", hold.getHoldId(), hold.getTrainId());
+        }
+    }
+
+    private void finish(Hold hold) {
+        hold.state.set(DONE);
+        hold.timeout.cancel();
+        drop(hold);
+    }
+
+    private void unclaim(Hold hold) {
+        hold.state.set(ACTIVE);
+        // The timer may have fired while the booking was in flight
+        if (!hold.getExpiresAt().isAfter(Instant.now())) {
+            expire(hold);
+        }
+    }
+
+    private void drop(Hold hold) {
+        holds.remove(hold.getHoldId());
+        heldSeats.computeIfPresent(key(hold.getTrainId(), hold.getDate()),
+                (k, held) -> held > hold.getSeats() ? held - hold.getSeats() : null);
+    }
+
+    private static long key(Long trainId, LocalDate date) {
+        return (trainId << 20) | date.toEpochDay();
+    }
+
+    public static final class Hold {
+        @Getter private final String holdId;
+        @Getter private final Long trainId;
+        @Getter private final LocalDate date;
+        @Getter private final int seats;
+        @Getter private final String userEmail;
+        @Getter private final Instant expiresAt;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private Hold(String holdId, Long trainId, LocalDate date, int seats, String userEmail, Instant expiresAt) {
+            this.holdId = holdId;
+            this.trainId = trainId;
+            this.date = date;
+            this.seats = seats;
+            this.userEmail = userEmail;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
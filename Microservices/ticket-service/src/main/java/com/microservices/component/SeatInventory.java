@@ -0,0 +1,191 @@
+package com.microservices.component;
+
+import com.microservices.domain.TicketStatus;
+import com.microservices.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory count of confirmed seats per (trainId, travel date).
+ * Seeded once from the ticket table while the context starts, before the web
+ * server takes requests, and then kept up to date by the booking and
+ * cancellation paths, so availability reads never hit the DB. A load builds
+ * the new counts off to the side and swaps them in whole, so a reader never
+ * sees a half-filled map.
+ * Dates before the seeding day are not held in memory and fall back to the repository.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+
+    private final TicketRepository ticketRepository;
+    private final ReplicaRouter replicaRouter;
+    private volatile ConcurrentHashMap<Key, AtomicInteger> bookedSeats = new ConcurrentHashMap<>();
+    // Striped locks that serialise capacity checks per (train, date), shared with seat holds
+    private final Object[] locks = new Object[64];
+    private volatile LocalDate seededFrom;
+
+    @Value("${ticket.journal.replay-on-startup:false}")
+    private boolean seededFromJournal;
+
+    {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // No booking can commit between the query and the swap, since none is accepted yet
+    @PostConstruct
+    public void seed() {
+        if (seededFromJournal) {
+            return;
+        }
+        LocalDate from = LocalDate.now();
+        // Seeded from the primary: a lagging replica would undercount booked seats until restart
+        load(replicaRouter.onPrimary(() -> ticketRepository.sumSeatsByTrainAndDate(TicketStatus.CONFIRMED, from)), from);
+    }
+
+    // Replaces the counts with rows shaped like TicketRepository.sumSeatsByTrainAndDate for dates from the given day
+    public void load(List<Object[]> rows, LocalDate from) {
+        ConcurrentHashMap<Key, AtomicInteger> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            Long trainId = (Long) row[0];
+            LocalDate date = (LocalDate) row[1];
+            int seats = ((Number) row[2]).intValue();
+            loaded.put(new Key(trainId, date), new AtomicInteger(seats));
+        }
+        bookedSeats = loaded;
+        seededFrom = from;
+        logger.info("Seat inventory seeded with {} train/date entries from {}", rows.size(), from);
+    }
+
+    // Returns the confirmed seat count for a train on a date
+    public int getBookedSeats(Long trainId, LocalDate date) {
+        if (!isTracked(date)) {
+            Integer seats = ticketRepository.getBookedSeatsCountByTrainAndDate(trainId, date);
+            return seats != null ? seats : 0;
+        }
+        AtomicInteger seats = bookedSeats.get(new Key(trainId, date));
+        return seats != null ? seats.get() : 0;
+    }
+
+    // Records newly confirmed seats, deferred until the surrounding transaction commits
+    public void reserve(Long trainId, LocalDate date, int count) {
+        afterCommit(() -> adjust(trainId, date, count));
+    }
+
+    /**
+     * Reserves seats only if the confirmed seats, the seats under hold and the
+     * new seats fit into the capacity. The seats count as soon as the check
+     * passes, so two concurrent bookings cannot both take the last seats, and
+     * they are given back if the surrounding transaction rolls back.
+     */
+    public boolean tryReserve(Long trainId, LocalDate date, int count, int capacity, IntSupplier heldSeats) {
+        if (!isTracked(date)) {
+            if (getBookedSeats(trainId, date) + heldSeats.getAsInt() + count > capacity) {
+                return false;
+            }
+            reserve(trainId, date, count);
+            return true;
+        }
+        synchronized (lockFor(trainId, date)) {
+            AtomicInteger seats = bookedSeats.computeIfAbsent(new Key(trainId, date), k -> new AtomicInteger());
+            if (seats.get() + heldSeats.getAsInt() + count > capacity) {
+                return false;
+            }
+            seats.addAndGet(count);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjust(trainId, date, -count);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Runs a capacity check under the same lock as tryReserve, so holds and bookings see each other
+    public <T> T locked(Long trainId, LocalDate date, Supplier<T> check) {
+        synchronized (lockFor(trainId, date)) {
+            return check.get();
+        }
+    }
+
+    // Releases seats of a cancelled ticket, deferred until the surrounding transaction commits
+    public void release(Long trainId, LocalDate date, int count) {
+        afterCommit(() -> adjust(trainId, date, -count));
+    }
+
+    private void adjust(Long trainId, LocalDate date, int delta) {
+        if (trainId == null || delta == 0 || !isTracked(date)) {
+            return;
+        }
+        bookedSeats.computeIfAbsent(new Key(trainId, date), k -> new AtomicInteger())
+                .accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+    }
+
+    private Object lockFor(Long trainId, LocalDate date) {
+        return locks[Math.floorMod(Objects.hash(trainId, date), locks.length)];
+    }
+
+    private boolean isTracked(LocalDate date) {
+        LocalDate from = seededFrom;
+        return date != null && from != null && !date.isBefore(from);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Key {
+        private final Long trainId;
+        private final LocalDate date;
+
+        private Key(Long trainId, LocalDate date) {
+            this.trainId = trainId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return trainId.equals(other.trainId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(trainId, date);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.microservices.component;
+
+import com.microservices.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Moves travelled and cancelled tickets older than the retention window from
+ * ticket_booking into ticket_booking_archive, one chunk per transaction, so
+ * the hot table and its indexes only hold current journeys. Tickets with a
+ * refund still in flight stay until it settles. When the archive is range
+ * partitioned by month (database-ticket-archive-migration.sql), the
+ * partitions a run needs are created before any rows move.
+ */
+@Component
+public class TicketArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketArchiver.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean partitioned;
+
+    @Value("${ticket.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${ticket.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    public TicketArchiver(TicketRepository ticketRepository, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectPartitioning() {
+        try {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_partitioned_table p "
+                    + "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = 'ticket_booking_archive'", Integer.class);
+            partitioned = count != null && count > 0;
+        } catch (DataAccessException e) {
+            partitioned = false;
+        }
+        logger.info("Ticket archive is {}", partitioned ? "partitioned by month" : "a plain table");
+    }
+
+    @Scheduled(cron = "${ticket.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        LocalDate oldest = ticketRepository.findOldestBookingDateBefore(cutoff);
+        if (oldest == null) {
+            return;
+        }
+        if (partitioned) {
+            createPartitions(oldest, cutoff);
+        }
+        long started = System.nanoTime();
+        int moved = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> ticketRepository.archiveBefore(cutoff, chunkSize));
+            moved += chunk;
+        } while (chunk == chunkSize);
+        logger.info("Archived {} tickets travelling before {} in {} ms", moved, cutoff,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // One partition per month from the oldest archivable ticket up to the cutoff
+    private void createPartitions(LocalDate oldest, LocalDate cutoff) {
+        for (LocalDate month = oldest.withDayOfMonth(1); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            String sql = "CREATE TABLE IF NOT EXISTS ticket_booking_archive_" + month.format(PARTITION_SUFFIX)
+                    + " PARTITION OF ticket_booking_archive FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')";
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                // Rows for this month then land in the default partition
+                logger.warn("Could not create archive partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.microservices.component;
+
+import com.microservices.dto.TicketBookedEvent;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Where ticket events go once a booking commits. ticket.events.bus picks the
+ * implementation: kafka for the notification-service topic, in-process
+ * (the default) for listeners inside ticket-service, or file for an
+ * append-only NDJSON log. All of them return without waiting on delivery.
+ */
+public interface TicketEventBus {
+
+    void publish(TicketBookedEvent event);
+
+    // True when a consumer of the bus emails the booking confirmation itself, so ticket-service must not
+    default boolean sendsConfirmations() {
+        return false;
+    }
+
+    // A booking that rolls back never announces itself
+    default void publishAfterCommit(TicketBookedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+}
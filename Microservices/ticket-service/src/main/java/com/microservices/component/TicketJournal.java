@@ -0,0 +1,400 @@
+package com.microservices.component;
+
+import com.microservices.domain.RefundStatus;
+import com.microservices.domain.TicketStatus;
+import com.microservices.model.ArchivedTicket;
+import com.microservices.model.TicketBooking;
+import com.microservices.repository.ArchivedTicketRepository;
+import com.microservices.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of ticket state transitions. Every booking, update,
+ * promotion, cancellation and refund outcome is appended once its
+ * transaction commits, as a fixed-size binary record in memory-mapped
+ * segment files. Segments are flushed to disk on a schedule and on shutdown.
+ *
+ * Record layout, big-endian: int length, int CRC32C of the payload, then the
+ * payload (version, type, from/to/refund status, timestamp, ticket, train,
+ * travel day, seats, amount, fee, waitlist time). A zero length marks the end
+ * of the written part of a segment. A record whose CRC does not match ends
+ * the replay of its segment, so a torn write at the tail is ignored and
+ * overwritten by the next append.
+ *
+ * The journal is off unless ticket.journal.enabled=true. The first start
+ * with an empty journal writes a SNAPSHOT record per ticket in the hot and
+ * archive tables before the service takes traffic, so a replay always starts
+ * from a complete state; on a large table that makes the first start slow.
+ * It runs before any other record is appended, because a snapshot written
+ * later would overwrite newer records on replay. The journal belongs to one
+ * instance; the ticket table stays the source of truth.
+ */
+@Component
+public class TicketJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketJournal.class);
+
+    private static final byte VERSION = 1;
+    private static final int HEADER = 8;
+    private static final int PAYLOAD = 51;
+    private static final String SUFFIX = ".journal";
+
+    private static final TicketStatus[] TICKET_STATUSES = TicketStatus.values();
+    private static final RefundStatus[] REFUND_STATUSES = RefundStatus.values();
+
+    public enum Type {
+        SNAPSHOT, BOOKED, UPDATED, PROMOTED, CANCELLED, REFUND
+    }
+
+    public record Entry(Type type, long at, long ticketId, Long trainId, LocalDate date,
+                        TicketStatus from, TicketStatus to, RefundStatus refundStatus,
+                        int seats, int amount, long feePaise, LocalDateTime waitlistedAt) {
+    }
+
+    private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ByteBuffer scratch = ByteBuffer.allocate(PAYLOAD);
+    private final CRC32C crc = new CRC32C();
+
+    private Path directory;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position;
+    private long appended;
+    private volatile boolean dirty;
+
+    @Value("${ticket.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ticket.journal.dir:ticket-journal}")
+    private String dir;
+
+    @Value("${ticket.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    public TicketJournal(TicketRepository ticketRepository, ArchivedTicketRepository archivedTicketRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.archivedTicketRepository = archivedTicketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Opens the last segment at its end, or writes the baseline before the service takes traffic
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            map(0);
+            writeBaseline();
+            return;
+        }
+        String last = segments.get(segments.size() - 1).getFileName().toString();
+        map(Integer.parseInt(last.substring(0, last.length() - SUFFIX.length())));
+        position = scan(segment, null);
+        logger.info("Ticket journal opened at segment {} offset {} in {}", segmentIndex, position, directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.journal.flush-ms:1000}")
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        synchronized (this) {
+            dirty = false;
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Journals the current state of a ticket that was in the given status before (null for a new ticket) after commit
+    public void record(TicketStatus from, TicketBooking ticket) {
+        TicketStatus to = ticket.getStatus();
+        Type type;
+        if (from == null) {
+            type = Type.BOOKED;
+        } else if (from == TicketStatus.WAITING && to == TicketStatus.CONFIRMED) {
+            type = Type.PROMOTED;
+        } else if (from != TicketStatus.CANCELLED && to == TicketStatus.CANCELLED) {
+            type = Type.CANCELLED;
+        } else {
+            type = Type.UPDATED;
+        }
+        append(type, from, ticket);
+    }
+
+    // Journals a refund outcome set on a ticket outside the cancellation that started it
+    public void recordRefund(TicketBooking ticket) {
+        append(Type.REFUND, ticket.getStatus(), ticket);
+    }
+
+    private void append(Type type, TicketStatus from, TicketBooking ticket) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = toEntry(type, from, ticket);
+        afterCommit(() -> {
+            try {
+                write(entry);
+            } catch (RuntimeException e) {
+                // The change is committed either way; the journal just misses this entry
+                logger.error("Could not journal {} of ticket {}: {}", type, entry.ticketId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Streams every valid record from the oldest segment to the newest, in the
+     * order they were appended. Records appended while a replay runs may or may
+     * not be included.
+     */
+    public long replay(Consumer<Entry> consumer) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long count = 0;
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                long[] records = {0};
+                scan(buffer, entry -> {
+                    records[0]++;
+                    consumer.accept(entry);
+                });
+                count += records[0];
+            }
+        }
+        return count;
+    }
+
+    // Every journalled change of one ticket, oldest first; reads the whole journal
+    public List<Entry> history(long ticketId) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        replay(entry -> {
+            if (entry.ticketId() == ticketId) {
+                entries.add(entry);
+            }
+        });
+        return entries;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (enabled) {
+            stats.put("directory", directory.toAbsolutePath().toString());
+            stats.put("segment", segmentIndex);
+            stats.put("offset", position);
+            stats.put("segmentBytes", segmentBytes);
+            stats.put("appendedSinceStart", appended);
+        }
+        return stats;
+    }
+
+    private synchronized void write(Entry entry) {
+        if (position + HEADER + PAYLOAD > segment.capacity()) {
+            segment.force();
+            try {
+                map(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open ticket journal segment " + (segmentIndex + 1), e);
+            }
+        }
+        encode(entry, scratch.clear());
+        crc.reset();
+        crc.update(scratch.flip());
+        // Length goes in last, so a reader never sees a record before its payload and CRC
+        segment.put(position + HEADER, scratch, 0, PAYLOAD);
+        segment.putInt(position + 4, (int) crc.getValue());
+        segment.putInt(position, PAYLOAD);
+        position += HEADER + PAYLOAD;
+        appended++;
+        dirty = true;
+    }
+
+    private void writeBaseline() {
+        long started = System.nanoTime();
+        long[] count = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TicketBooking> tickets = ticketRepository.streamAll()) {
+                tickets.forEach(ticket -> {
+                    write(toEntry(Type.SNAPSHOT, null, ticket));
+                    count[0]++;
+                });
+            }
+            try (Stream<ArchivedTicket> archived = archivedTicketRepository.streamAll()) {
+                archived.forEach(ticket -> {
+                    write(toEntry(Type.SNAPSHOT, null, ticket.toTicketBooking()));
+                    count[0]++;
+                });
+            }
+        });
+        flush();
+        logger.info("Ticket journal created in {} with a baseline of {} tickets in {} ms",
+                directory.toAbsolutePath(), count[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Walks the records of a segment and returns the offset just past the last valid one
+    private int scan(ByteBuffer buffer, Consumer<Entry> consumer) {
+        int limit = buffer.capacity();
+        int offset = 0;
+        CRC32C check = new CRC32C();
+        while (offset + HEADER <= limit) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < PAYLOAD || offset + HEADER + length > limit) {
+                logger.warn("Ticket journal record at offset {} has a bad length {}; ignoring the rest of the segment", offset, length);
+                break;
+            }
+            check.reset();
+            check.update(buffer.slice(offset + HEADER, length));
+            if ((int) check.getValue() != buffer.getInt(offset + 4)) {
+                logger.warn("Ticket journal record at offset {} fails its CRC; ignoring the rest of the segment", offset);
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(decode(buffer, offset + HEADER));
+            }
+            offset += HEADER + length;
+        }
+        return offset;
+    }
+
+    private void map(int index) throws IOException {
+        Path path = directory.resolve(String.format("%010d%s", index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A mapping outlives its channel; an existing segment keeps its own size
+            long size = Math.max(channel.size(), segmentBytes);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segmentIndex = index;
+        position = 0;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static Entry toEntry(Type type, TicketStatus from, TicketBooking ticket) {
+        LocalDateTime waitlistedAt = ticket.getStatus() == TicketStatus.WAITING
+                ? (ticket.getWaitlistedAt() != null ? ticket.getWaitlistedAt() : ticket.getDepartureTime())
+                : null;
+        long fee = ticket.getCancellationFee() != null ? Math.round(ticket.getCancellationFee() * 100) : 0L;
+        return new Entry(type, System.currentTimeMillis(), ticket.getTicket_id(), ticket.getTrainId(),
+                ticket.getBookingDate(), from, ticket.getStatus(), ticket.getRefundStatus(),
+                ticket.getNoOfSeats(), ticket.getAmount(), fee, waitlistedAt);
+    }
+
+    private static void encode(Entry entry, ByteBuffer out) {
+        out.put(VERSION);
+        out.put((byte) entry.type().ordinal());
+        out.put(code(entry.from()));
+        out.put(code(entry.to()));
+        out.put(code(entry.refundStatus()));
+        out.putLong(entry.at());
+        out.putLong(entry.ticketId());
+        out.putLong(entry.trainId() != null ? entry.trainId() : -1L);
+        out.putInt(entry.date() != null ? (int) entry.date().toEpochDay() : Integer.MIN_VALUE);
+        out.putShort((short) entry.seats());
+        out.putInt(entry.amount());
+        out.putInt((int) entry.feePaise());
+        LocalDateTime waitlistedAt = entry.waitlistedAt();
+        out.putLong(waitlistedAt != null
+                ? waitlistedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + waitlistedAt.getNano()
+                : Long.MIN_VALUE);
+    }
+
+    private static Entry decode(ByteBuffer in, int offset) {
+        Type type = Type.values()[in.get(offset + 1)];
+        TicketStatus from = decode(TICKET_STATUSES, in.get(offset + 2));
+        TicketStatus to = decode(TICKET_STATUSES, in.get(offset + 3));
+        RefundStatus refundStatus = decode(REFUND_STATUSES, in.get(offset + 4));
+        long at = in.getLong(offset + 5);
+        long ticketId = in.getLong(offset + 13);
+        long trainId = in.getLong(offset + 21);
+        int epochDay = in.getInt(offset + 29);
+        int seats = in.getShort(offset + 33);
+        int amount = in.getInt(offset + 35);
+        int feePaise = in.getInt(offset + 39);
+        long waitlistedNanos = in.getLong(offset + 43);
+        LocalDateTime waitlistedAt = waitlistedNanos == Long.MIN_VALUE ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(waitlistedNanos, 1_000_000_000L),
+                (int) Math.floorMod(waitlistedNanos, 1_000_000_000L), ZoneOffset.UTC);
+        return new Entry(type, at, ticketId, trainId >= 0 ? trainId : null,
+                epochDay != Integer.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null,
+                from, to, refundStatus, seats, amount, feePaise, waitlistedAt);
+    }
+
+    // 0 stands for null, otherwise ordinal + 1
+    private static byte code(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static <E> E decode(E[] values, byte code) {
+        return code > 0 && code <= values.length ? values[code - 1] : null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
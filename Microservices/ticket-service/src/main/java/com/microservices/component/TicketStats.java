@@ -0,0 +1,304 @@
+package com.microservices.component;
+
+import com.microservices.domain.TicketStatus;
+import com.microservices.dto.DailyTrainStatsDTO;
+import com.microservices.dto.TicketStatsDTO;
+import com.microservices.feign.TrainClient;
+import com.microservices.model.TicketBooking;
+import com.microservices.repository.ArchivedTicketRepository;
+import com.microservices.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revenue and occupancy counters per (trainId, travel date) for the admin
+ * dashboard. The booking, promotion and cancellation paths report how a
+ * ticket changed once their transaction commits, and running totals are
+ * kept next to the per-day cells, so a dashboard read does not depend on
+ * the number of tickets. A full recompute from the ticket tables at startup
+ * and on a schedule replaces the counters and logs any drift; a change that
+ * commits while it runs may be off until the next one. Each recorded change
+ * is also appended to the ticket journal.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketStats.class);
+
+    private static final int CONFIRMED = 0;
+    private static final int WAITING = 1;
+    private static final int CANCELLED = 2;
+    private static final int SEATS = 3;
+    private static final int REVENUE_PAISE = 4;
+    private static final int FEES_PAISE = 5;
+    private static final int FIELDS = 6;
+
+    private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final TrainClient trainClient;
+    private final TicketJournal ticketJournal;
+    private final ReplicaRouter replicaRouter;
+    private volatile State state = new State(new ConcurrentHashMap<>(), new AtomicLongArray(FIELDS), null);
+
+    @Value("${ticket.journal.replay-on-startup:false}")
+    private boolean seededFromJournal;
+
+    // What a ticket contributes to the counters at one point in time
+    public static final class Snapshot {
+        private final Long trainId;
+        private final LocalDate date;
+        private final TicketStatus status;
+        private final long[] values;
+
+        private Snapshot(Long trainId, LocalDate date, TicketStatus status, long[] values) {
+            this.trainId = trainId;
+            this.date = date;
+            this.status = status;
+            this.values = values;
+        }
+    }
+
+    private record State(ConcurrentHashMap<Long, Cell> cells, AtomicLongArray totals, LocalDateTime recomputedAt) {
+    }
+
+    private static final class Cell {
+        private final Long trainId;
+        private final LocalDate date;
+        private final AtomicLongArray values = new AtomicLongArray(FIELDS);
+
+        private Cell(Long trainId, LocalDate date) {
+            this.trainId = trainId;
+            this.date = date;
+        }
+    }
+
+    // Takes the contribution of a ticket before it is changed; pass it to record() afterwards
+    public Snapshot snapshot(TicketBooking ticket) {
+        long[] values = new long[FIELDS];
+        if (ticket.getTrainId() == null || ticket.getBookingDate() == null || ticket.getStatus() == null) {
+            return new Snapshot(ticket.getTrainId(), ticket.getBookingDate(), ticket.getStatus(), values);
+        }
+        switch (ticket.getStatus()) {
+            case CONFIRMED -> {
+                values[CONFIRMED] = 1;
+                values[SEATS] = ticket.getNoOfSeats();
+                values[REVENUE_PAISE] = ticket.getAmount() * 100L;
+            }
+            case WAITING -> values[WAITING] = 1;
+            case CANCELLED -> {
+                values[CANCELLED] = 1;
+                values[FEES_PAISE] = toPaise(ticket.getCancellationFee());
+            }
+        }
+        return new Snapshot(ticket.getTrainId(), ticket.getBookingDate(), ticket.getStatus(), values);
+    }
+
+    // Moves a ticket from its earlier contribution (null for a new ticket) to its current one after commit
+    public void record(Snapshot before, TicketBooking after) {
+        ticketJournal.record(before != null ? before.status : null, after);
+        Snapshot now = snapshot(after);
+        afterCommit(() -> {
+            State current = state;
+            if (before != null) {
+                apply(current, before, -1);
+            }
+            apply(current, now, 1);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!seededFromJournal) {
+            recompute();
+        }
+    }
+
+    @Scheduled(cron = "${ticket.stats.recompute-cron:0 15 * * * *}")
+    public void recompute() {
+        // Archived tickets still count: archiving moves a ticket, it does not change it
+        // Read from the primary, so the counters do not start out behind a lagging replica
+        List<Object[]> rows = replicaRouter.onPrimary(() -> {
+            List<Object[]> all = new ArrayList<>(ticketRepository.aggregateByTrainDateAndStatus());
+            all.addAll(archivedTicketRepository.aggregateByTrainDateAndStatus());
+            return all;
+        });
+        load(rows);
+    }
+
+    // Replaces the counters with rows shaped like TicketRepository.aggregateByTrainDateAndStatus
+    public void load(List<Object[]> rows) {
+        long started = System.nanoTime();
+        ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+        AtomicLongArray totals = new AtomicLongArray(FIELDS);
+        State fresh = new State(cells, totals, null);
+        for (Object[] row : rows) {
+            Long trainId = (Long) row[0];
+            LocalDate date = (LocalDate) row[1];
+            TicketStatus status = (TicketStatus) row[2];
+            if (trainId == null || date == null || status == null) {
+                continue;
+            }
+            long[] values = new long[FIELDS];
+            long tickets = ((Number) row[3]).longValue();
+            switch (status) {
+                case CONFIRMED -> {
+                    values[CONFIRMED] = tickets;
+                    values[SEATS] = ((Number) row[4]).longValue();
+                    values[REVENUE_PAISE] = ((Number) row[5]).longValue() * 100L;
+                }
+                case WAITING -> values[WAITING] = tickets;
+                case CANCELLED -> {
+                    values[CANCELLED] = tickets;
+                    values[FEES_PAISE] = toPaise(((Number) row[6]).doubleValue());
+                }
+            }
+            apply(fresh, new Snapshot(trainId, date, status, values), 1);
+        }
+
+        State previous = state;
+        state = new State(cells, totals, LocalDateTime.now());
+        if (previous.recomputedAt() != null) {
+            int drifted = countDrift(previous.cells(), cells);
+            if (drifted > 0) {
+                logger.warn("Ticket stats drifted on {} train/date entries; replaced by recompute", drifted);
+            }
+        }
+        logger.info("Ticket stats recomputed: {} train/date entries in {} ms", cells.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Running totals, plus one row per train and date when a range or a
+     * train is given. Capacity comes from the cached train lookup, once per train.
+     */
+    public TicketStatsDTO getStats(LocalDate from, LocalDate to, Long trainId) {
+        State current = state;
+        AtomicLongArray totals = current.totals();
+        TicketStatsDTO stats = new TicketStatsDTO();
+        stats.setConfirmedTickets(totals.get(CONFIRMED));
+        stats.setWaitingTickets(totals.get(WAITING));
+        stats.setCancelledTickets(totals.get(CANCELLED));
+        stats.setTotalTickets(stats.getConfirmedTickets() + stats.getWaitingTickets() + stats.getCancelledTickets());
+        stats.setSeatsSold(totals.get(SEATS));
+        stats.setConfirmedRevenue(totals.get(REVENUE_PAISE) / 100.0);
+        stats.setCancellationFees(totals.get(FEES_PAISE) / 100.0);
+        stats.setTotalRevenue(stats.getConfirmedRevenue() + stats.getCancellationFees());
+        stats.setRecomputedAt(current.recomputedAt());
+        if (from == null && to == null && trainId == null) {
+            return stats;
+        }
+
+        Map<Long, Integer> capacities = new HashMap<>();
+        List<DailyTrainStatsDTO> days = new ArrayList<>();
+        for (Cell cell : current.cells().values()) {
+            if ((trainId != null && !trainId.equals(cell.trainId))
+                    || (from != null && cell.date.isBefore(from))
+                    || (to != null && cell.date.isAfter(to))) {
+                continue;
+            }
+            DailyTrainStatsDTO day = new DailyTrainStatsDTO();
+            day.setTrainId(cell.trainId);
+            day.setDate(cell.date);
+            day.setConfirmedTickets(cell.values.get(CONFIRMED));
+            day.setWaitingTickets(cell.values.get(WAITING));
+            day.setCancelledTickets(cell.values.get(CANCELLED));
+            day.setSeatsSold(cell.values.get(SEATS));
+            day.setCancellationFees(cell.values.get(FEES_PAISE) / 100.0);
+            day.setRevenue(cell.values.get(REVENUE_PAISE) / 100.0 + day.getCancellationFees());
+            Integer capacity = capacities.computeIfAbsent(cell.trainId, this::capacityOf);
+            day.setCapacity(capacity);
+            if (capacity != null && capacity > 0) {
+                day.setOccupancy((double) day.getSeatsSold() / capacity);
+            }
+            days.add(day);
+        }
+        days.sort(Comparator.comparing(DailyTrainStatsDTO::getDate).thenComparing(DailyTrainStatsDTO::getTrainId));
+        stats.setDays(days);
+        return stats;
+    }
+
+    private Integer capacityOf(Long trainId) {
+        try {
+            return trainClient.getTrainById(trainId).getTotalSeats();
+        } catch (Exception e) {
+            logger.warn("Capacity of train {} unavailable for stats: {}", trainId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void apply(State state, Snapshot snapshot, int sign) {
+        if (snapshot.trainId == null || snapshot.date == null) {
+            return;
+        }
+        Cell cell = state.cells().computeIfAbsent(key(snapshot.trainId, snapshot.date),
+                k -> new Cell(snapshot.trainId, snapshot.date));
+        for (int i = 0; i < FIELDS; i++) {
+            long delta = sign * snapshot.values[i];
+            if (delta != 0) {
+                cell.values.addAndGet(i, delta);
+                state.totals().addAndGet(i, delta);
+            }
+        }
+    }
+
+    private static int countDrift(Map<Long, Cell> previous, Map<Long, Cell> fresh) {
+        Set<Long> keys = new HashSet<>(previous.keySet());
+        keys.addAll(fresh.keySet());
+        int drifted = 0;
+        for (Long key : keys) {
+            Cell before = previous.get(key);
+            Cell after = fresh.get(key);
+            for (int i = 0; i < FIELDS; i++) {
+                long a = before != null ? before.values.get(i) : 0;
+                long b = after != null ? after.values.get(i) : 0;
+                if (a != b) {
+                    drifted++;
+                    break;
+                }
+            }
+        }
+        return drifted;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toPaise(Double rupees) {
+        return rupees != null ? Math.round(rupees * 100) : 0L;
+    }
+
+    private static long key(Long trainId, LocalDate date) {
+        return (trainId << 20) | date.toEpochDay();
+    }
+}
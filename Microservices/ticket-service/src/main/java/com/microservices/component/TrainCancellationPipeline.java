@@ -0,0 +1,246 @@
+package com.microservices.component;
+
+import com.microservices.domain.CancellationJobStatus;
+import com.microservices.domain.RefundStatus;
+import com.microservices.domain.TicketStatus;
+import com.microservices.feign.PaymentClient;
+import com.microservices.model.TicketBooking;
+import com.microservices.model.TrainCancellationJob;
+import com.microservices.repository.TicketRepository;
+import com.microservices.repository.TrainCancellationJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Cancels every live ticket of a cancelled train and refunds it in full.
+ * Phase one cancels tickets a chunk at a time, one transaction and one batched
+ * update per chunk, and marks paid tickets PENDING. Phase two
+ * refunds the PENDING tickets on a bounded pool, rate limited toward
+ * payment-service, and records the outcomes in one batched update per chunk;
+ * failed refunds are handed to {@link RefundQueue}.
+ * The ticket rows are the checkpoint: a job interrupted by a crash is resumed
+ * at startup and only picks up what is still live or PENDING.
+ */
+@Component
+public class TrainCancellationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainCancellationPipeline.class);
+    private static final List<TicketStatus> LIVE = List.of(TicketStatus.CONFIRMED, TicketStatus.WAITING);
+
+    private final TicketRepository ticketRepository;
+    private final TrainCancellationJobRepository jobRepository;
+    private final PaymentClient paymentClient;
+    private final SeatInventory seatInventory;
+    private final Waitlist waitlist;
+    private final MailOutbox mailOutbox;
+    private final RefundQueue refundQueue;
+    private final TicketStats ticketStats;
+    private final TicketJournal ticketJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService refundExecutor;
+    private final RateLimiter refundLimiter;
+    private final Set<Long> activeTrains = ConcurrentHashMap.newKeySet();
+
+    @Value("${ticket.cancellation.chunk-size:500}")
+    private int chunkSize;
+
+    public TrainCancellationPipeline(TicketRepository ticketRepository, TrainCancellationJobRepository jobRepository,
+                                     PaymentClient paymentClient, SeatInventory seatInventory, Waitlist waitlist,
+                                     MailOutbox mailOutbox, RefundQueue refundQueue, TicketStats ticketStats,
+                                     TicketJournal ticketJournal, PlatformTransactionManager transactionManager,
+                                     BlockingExecutors executors,
+                                     @Value("${ticket.cancellation.refund-concurrency:8}") int refundConcurrency,
+                                     @Value("${ticket.cancellation.refunds-per-second:50}") double refundsPerSecond) {
+        this.ticketRepository = ticketRepository;
+        this.jobRepository = jobRepository;
+        this.paymentClient = paymentClient;
+        this.seatInventory = seatInventory;
+        this.waitlist = waitlist;
+        this.mailOutbox = mailOutbox;
+        this.refundQueue = refundQueue;
+        this.ticketStats = ticketStats;
+        this.ticketJournal = ticketJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobExecutor = executors.fixed("cancellation-job", 2);
+        this.refundExecutor = executors.fixed("cancellation-refund", refundConcurrency);
+        this.refundLimiter = new RateLimiter(refundsPerSecond);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (TrainCancellationJob job : jobRepository.findByStatus(CancellationJobStatus.RUNNING)) {
+            logger.info("Resuming mass cancellation of train {}", job.getTrainId());
+            submit(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        refundExecutor.shutdownNow();
+    }
+
+    // Starts the pipeline for a train, or returns the job already running for it
+    public TrainCancellationJob start(Long trainId) {
+        TrainCancellationJob latest = jobRepository.findFirstByTrainIdOrderByIdDesc(trainId).orElse(null);
+        if (latest != null && latest.getStatus() == CancellationJobStatus.RUNNING) {
+            submit(latest);
+            return latest;
+        }
+        TrainCancellationJob job = new TrainCancellationJob();
+        job.setTrainId(trainId);
+        job.setStatus(CancellationJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    public TrainCancellationJob getLatestJob(Long trainId) {
+        return jobRepository.findFirstByTrainIdOrderByIdDesc(trainId).orElse(null);
+    }
+
+    private void submit(TrainCancellationJob job) {
+        if (!activeTrains.add(job.getTrainId())) {
+            return;
+        }
+        jobExecutor.submit(() -> {
+            try {
+                run(job.getId(), job.getTrainId());
+            } catch (RuntimeException e) {
+                // The job stays RUNNING and is resumed on the next start or restart
+                logger.error("Mass cancellation of train {} interrupted: {}", job.getTrainId(), e.getMessage(), e);
+            } finally {
+                activeTrains.remove(job.getTrainId());
+            }
+        });
+    }
+
+    private void run(Long jobId, Long trainId) {
+        long started = System.nanoTime();
+        LocalDate from = LocalDate.now();
+        int cancelled = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> cancelChunk(trainId, from));
+            cancelled += chunk;
+        } while (chunk == chunkSize);
+
+        int refunded = 0;
+        int failed = 0;
+        long after = 0L;
+        while (true) {
+            List<TicketBooking> pending = ticketRepository.findRefundsAfter(trainId, RefundStatus.PENDING, after,
+                    PageRequest.of(0, chunkSize));
+            if (pending.isEmpty()) {
+                break;
+            }
+            Map<Long, String> refundIds = refundChunk(pending);
+            transactionTemplate.executeWithoutResult(status -> recordRefunds(pending, refundIds));
+            refunded += refundIds.size();
+            failed += pending.size() - refundIds.size();
+            after = pending.get(pending.size() - 1).getTicket_id();
+        }
+
+        int cancelledTickets = cancelled;
+        int refundedTickets = refunded;
+        int failedRefunds = failed;
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+            job.setCancelledTickets(job.getCancelledTickets() + cancelledTickets);
+            job.setRefunded(job.getRefunded() + refundedTickets);
+            job.setRefundFailed(job.getRefundFailed() + failedRefunds);
+            job.setStatus(CancellationJobStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+        }));
+        logger.info("Train {} mass cancellation done in {} ms: {} tickets cancelled, {} refunded, {} queued for retry",
+                trainId, (System.nanoTime() - started) / 1_000_000, cancelled, refunded, failed);
+    }
+
+    // Cancels the next chunk of live tickets in one transaction and returns how many it took
+    private int cancelChunk(Long trainId, LocalDate from) {
+        List<TicketBooking> tickets = ticketRepository.findByTrainFromDate(trainId, from, LIVE, PageRequest.of(0, chunkSize));
+        Map<LocalDate, Integer> releasedSeats = new HashMap<>();
+        for (TicketBooking ticket : tickets) {
+            TicketStats.Snapshot before = ticketStats.snapshot(ticket);
+            if (ticket.getStatus() == TicketStatus.WAITING) {
+                waitlist.remove(ticket.getTicket_id());
+            } else {
+                releasedSeats.merge(ticket.getBookingDate(), ticket.getNoOfSeats(), Integer::sum);
+            }
+            ticket.setStatus(TicketStatus.CANCELLED);
+            ticketStats.record(before, ticket);
+            boolean paid = ticket.getPaymentId() != null && !ticket.getPaymentId().isEmpty();
+            if (paid) {
+                ticket.setRefundStatus(RefundStatus.PENDING);
+            }
+            mailOutbox.enqueue(ticket.getEmail(),
+                    "Train Cancelled: " + ticket.getTicketNumber(),
+                    "Dear " + ticket.getFullName() + ",\n\n" +
+                            "We regret to inform you that train " + ticket.getTrainName() + " on " + ticket.getBookingDate()
+                            + " has been cancelled, and your ticket " + ticket.getTicketNumber() + " is cancelled with it.\n" +
+                            (paid ? "A full refund of ₹" + ticket.getAmount() + " has been initiated.\n" : "") +
+                            "\nWe apologise for the inconvenience.");
+        }
+        // Managed entities: the commit flushes all status changes as one JDBC batch
+        releasedSeats.forEach((date, seats) -> seatInventory.release(trainId, date, seats));
+        return tickets.size();
+    }
+
+    // Issues the refunds of a chunk in parallel and returns the refund id of each ticket that succeeded
+    private Map<Long, String> refundChunk(List<TicketBooking> tickets) {
+        Map<Long, String> refundIds = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(tickets.size());
+        for (TicketBooking ticket : tickets) {
+            calls.add(CompletableFuture.runAsync(() -> {
+                refundLimiter.acquire();
+                try {
+                    // Full refund: the railway cancelled the train, so no cancellation fee applies
+                    String refundId = paymentClient.refundPayment(ticket.getPaymentId(), ticket.getAmount() * 100);
+                    refundIds.put(ticket.getTicket_id(), refundId);
+                } catch (Exception e) {
+                    logger.error("Refund failed for ticket {}: {}", ticket.getTicket_id(), e.getMessage());
+                }
+            }, refundExecutor));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+        return refundIds;
+    }
+
+    private void recordRefunds(List<TicketBooking> tickets, Map<Long, String> refundIds) {
+        List<Long> ids = new ArrayList<>(tickets.size());
+        for (TicketBooking ticket : tickets) {
+            ids.add(ticket.getTicket_id());
+        }
+        List<TicketBooking> managed = ticketRepository.findAllById(ids);
+        for (TicketBooking ticket : managed) {
+            String refundId = refundIds.get(ticket.getTicket_id());
+            if (refundId != null) {
+                ticket.setRefundStatus(RefundStatus.REFUNDED);
+                ticket.setRefundId(refundId);
+            } else {
+                refundQueue.enqueue(ticket, ticket.getAmount() * 100, "Refund failed during train cancellation");
+            }
+            ticketJournal.recordRefund(ticket);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.microservices.component;
+
+import com.microservices.domain.TicketStatus;
+import com.microservices.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Waitlisted tickets per (train, date), ordered by the time they joined the
+ * list. The WAITING rows in the ticket table are the durable copy; this index
+ * is rebuilt from them while the context starts, before the web server takes
+ * requests, so promotion never scans the table and no offer can slip in
+ * between the query and the rebuild.
+ * Offer, remove and promote are O(log n) per ticket. Removal looks the entry
+ * up by ticket id, so it does not depend on the stored timestamp matching
+ * the one in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class Waitlist {
+
+    private static final Logger logger = LoggerFactory.getLogger(Waitlist.class);
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing((Entry e) -> e.waitlistedAt)
+            .thenComparingLong(e -> e.ticketId);
+
+    private final TicketRepository ticketRepository;
+    private final ReplicaRouter replicaRouter;
+    private volatile ConcurrentHashMap<Long, ConcurrentSkipListSet<Entry>> queues = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${ticket.journal.replay-on-startup:false}")
+    private boolean seededFromJournal;
+
+    @PostConstruct
+    public void load() {
+        if (!seededFromJournal) {
+            load(replicaRouter.onPrimary(
+                    () -> ticketRepository.findWaitlistEntries(TicketStatus.WAITING, LocalDate.now())));
+        }
+    }
+
+    // Replaces the queues with rows shaped like TicketRepository.findWaitlistEntries, built off to the side
+    public void load(List<Object[]> rows) {
+        ConcurrentHashMap<Long, ConcurrentSkipListSet<Entry>> loadedQueues = new ConcurrentHashMap<>();
+        ConcurrentHashMap<Long, Entry> loadedEntries = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            Entry entry = new Entry((Long) row[0], (Long) row[1], (LocalDate) row[2],
+                    ((Number) row[3]).intValue(), (LocalDateTime) row[4]);
+            loadedEntries.put(entry.ticketId, entry);
+            loadedQueues.computeIfAbsent(key(entry.trainId, entry.date), k -> new ConcurrentSkipListSet<>(ORDER)).add(entry);
+        }
+        entries = loadedEntries;
+        queues = loadedQueues;
+        logger.info("Waitlist loaded with {} waiting tickets", rows.size());
+    }
+
+    // Adds a WAITING ticket once the transaction that created it commits
+    public void offer(Long ticketId, Long trainId, LocalDate date, int seats, LocalDateTime waitlistedAt) {
+        Entry entry = new Entry(ticketId, trainId, date, seats, waitlistedAt);
+        afterCompletion(committed -> {
+            if (committed) {
+                add(entry);
+            }
+        });
+    }
+
+    /**
+     * Removes a ticket that left the waitlist by cancellation. The entry
+     * returns to the list if the surrounding transaction rolls back.
+     */
+    public void remove(Long ticketId) {
+        Entry entry = entries.remove(ticketId);
+        if (entry == null) {
+            return;
+        }
+        ConcurrentSkipListSet<Entry> queue = queues.get(key(entry.trainId, entry.date));
+        if (queue != null) {
+            synchronized (queue) {
+                queue.remove(entry);
+            }
+        }
+        afterCompletion(committed -> {
+            if (!committed) {
+                add(entry);
+            }
+        });
+    }
+
+    public int size(Long trainId, LocalDate date) {
+        ConcurrentSkipListSet<Entry> queue = queues.get(key(trainId, date));
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Takes tickets from the head of the list while they fit into the freed
+     * seats. Stops at the first ticket that does not fit, so a large party is
+     * not overtaken by later small ones. The taken tickets return to the list
+     * if the surrounding transaction rolls back.
+     */
+    public List<Long> promote(Long trainId, LocalDate date, int freedSeats) {
+        ConcurrentSkipListSet<Entry> queue = queues.get(key(trainId, date));
+        List<Long> promoted = new ArrayList<>();
+        if (queue == null || freedSeats <= 0) {
+            return promoted;
+        }
+        List<Entry> taken = new ArrayList<>();
+        // Removals lock the queue too; offers only append and cannot empty it under us
+        synchronized (queue) {
+            int remaining = freedSeats;
+            while (!queue.isEmpty()) {
+                Entry head = queue.first();
+                if (head.seats > remaining) {
+                    break;
+                }
+                queue.remove(head);
+                entries.remove(head.ticketId);
+                remaining -= head.seats;
+                taken.add(head);
+                promoted.add(head.ticketId);
+            }
+        }
+        if (!taken.isEmpty()) {
+            afterCompletion(committed -> {
+                if (!committed) {
+                    taken.forEach(this::add);
+                }
+            });
+        }
+        return promoted;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.ticketId, entry);
+        queues.computeIfAbsent(key(entry.trainId, entry.date), k -> new ConcurrentSkipListSet<>(ORDER)).add(entry);
+    }
+
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+
+    private static long key(Long trainId, LocalDate date) {
+        return (trainId << 20) | date.toEpochDay();
+    }
+
+    private static final class Entry {
+        private final Long ticketId;
+        private final Long trainId;
+        private final LocalDate date;
+        private final int seats;
+        private final LocalDateTime waitlistedAt;
+
+        private Entry(Long ticketId, Long trainId, LocalDate date, int seats, LocalDateTime waitlistedAt) {
+            this.ticketId = ticketId;
+            this.trainId = trainId;
+            this.date = date;
+            this.seats = seats;
+            this.waitlistedAt = waitlistedAt;
+        }
+    }
+}
@@ -1,31 +1,54 @@
- package com.microservices.config;
+package com.microservices.config;
 
- import org.apache.kafka.clients.producer.ProducerConfig;
- import org.apache.kafka.common.serialization.StringSerializer;
- import org.springframework.context.annotation.Bean;
- import org.springframework.context.annotation.Configuration;
- import org.springframework.kafka.core.DefaultKafkaProducerFactory;
- import org.springframework.kafka.core.KafkaTemplate;
- import org.springframework.kafka.core.ProducerFactory;
- import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
 
- import java.util.HashMap;
- import java.util.Map;
+import java.util.HashMap;
+import java.util.Map;
 
- @Configuration
- public class KafkaProducerConfig {
+// Idempotent, batched and compressed producer; only built when ticket.events.bus=kafka
+@Configuration
+@ConditionalOnProperty(name = "ticket.events.bus", havingValue = "kafka")
+public class KafkaProducerConfig {
 
-     @Bean
-     public ProducerFactory<String, Object> producerFactory() {
-         Map<String, Object> config = new HashMap<>();
-         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-         return new DefaultKafkaProducerFactory<>(config);
-     }
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(
+            @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+            @Value("${ticket.events.kafka.linger-ms:20}") int lingerMs,
+            @Value("${ticket.events.kafka.batch-size:65536}") int batchSize,
+            @Value("${ticket.events.kafka.compression:lz4}") String compression) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // notification-service maps the payload onto its own TicketEvent class, not ours
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // Idempotence needs acks=all and at most 5 in-flight requests; retries then cannot duplicate or reorder
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        // Never block the booking thread for long if the brokers are unreachable
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
 
-     @Bean
-     public KafkaTemplate<String, Object> kafkaTemplate() {
-         return new KafkaTemplate<>(producerFactory());
-     }
- }
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+        // Adds a producer span and writes the traceparent into the record headers
+        template.setObservationEnabled(true);
+        return template;
+    }
+}
@@ -0,0 +1,71 @@
+package com.microservices.config;
+
+import com.microservices.component.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to read replicas once replica.datasource.urls
+ * is set; without it Spring Boot's single DataSource is used as before.
+ * The lazy proxy holds off fetching a connection until the first statement,
+ * by which time the transaction's read-only flag is known.
+ */
+@Configuration
+@ConditionalOnProperty("replica.datasource.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties, ReplicaRouter router,
+                                 @Value("${replica.datasource.urls}") List<String> urls,
+                                 @Value("${replica.datasource.username:${spring.datasource.username:}}") String username,
+                                 @Value("${replica.datasource.password:${spring.datasource.password:}}") String password,
+                                 @Value("${replica.datasource.pool-size:10}") int poolSize) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRouter.PRIMARY, primaryDataSource);
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.getDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            targets.put(replica.getPoolName(), replica);
+            router.register(replica.getPoolName(), replica);
+        }
+
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return router.lookupKey();
+            }
+        };
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
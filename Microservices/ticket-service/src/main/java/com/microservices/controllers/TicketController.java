@@ -1,6 +1,12 @@
 package com.microservices.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.dto.CancellationResponseDTO;
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.GroupTicketRequestDTO;
+import com.microservices.dto.GroupTicketResponseDTO;
+import com.microservices.dto.SeatHoldRequestDTO;
+import com.microservices.dto.SeatHoldResponseDTO;
 import com.microservices.dto.TicketRequestDTO;
 import com.microservices.dto.TicketResponseDTO;
 import com.microservices.exception.TicketException;
@@ -10,10 +16,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -24,6 +34,7 @@ public class TicketController {
 
     private static final Logger logger = LoggerFactory.getLogger(TicketController.class);
     private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/book/{train_id}")
     public ResponseEntity<?> bookTicket(@PathVariable Long train_id, @Valid @RequestBody TicketRequestDTO req) {
@@ -37,6 +48,39 @@ public class TicketController {
         }
     }
 
+    @PostMapping("/book-group/{train_id}")
+    public ResponseEntity<?> bookGroupTicket(@PathVariable Long train_id, @Valid @RequestBody GroupTicketRequestDTO req) {
+        try {
+            GroupTicketResponseDTO result = ticketService.bookGroupTicket(train_id, req);
+            logger.info("Group booking of {} tickets for train_id: {}", result.getTickets().size(), train_id);
+            return ResponseEntity.ok(result);
+        } catch (TicketException e) {
+            logger.error("Group booking failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/hold/{train_id}")
+    public ResponseEntity<?> holdSeats(@PathVariable Long train_id, @RequestBody SeatHoldRequestDTO req) {
+        try {
+            SeatHoldResponseDTO result = ticketService.holdSeats(train_id, req);
+            return ResponseEntity.ok(result);
+        } catch (TicketException e) {
+            logger.error("Seat hold failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+        try {
+            return ResponseEntity.ok(ticketService.releaseHold(holdId));
+        } catch (TicketException e) {
+            logger.error("Seat hold release failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     @PutMapping("/cancel/{ticketId}")
     public ResponseEntity<?> cancelTicket(@PathVariable Long ticketId) {
         try {
@@ -95,6 +139,40 @@ public class TicketController {
         return ResponseEntity.ok(tickets);
     }
 
+    // Keyset-paginated variant of /all
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<TicketBooking>> getTicketsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ticketService.getTicketsPage(after, size));
+    }
+
+    // Every ticket as newline-delimited JSON, written as rows are read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllTickets() {
+        StreamingResponseBody body = out -> ticketService.forEachTicket(ticket -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(ticket));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    @GetMapping("/pnr/{ticketNumber}")
+    public ResponseEntity<?> getTicketByPnr(@PathVariable String ticketNumber) {
+        try {
+            TicketBooking ticket = ticketService.getTicketByPnr(ticketNumber);
+            logger.info("Fetched ticket by PNR: {}", ticketNumber);
+            return ResponseEntity.ok(ticket);
+        } catch (TicketException e) {
+            logger.error("PNR lookup failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/order/{orderId}")
     public ResponseEntity<?> getTicketByOrderId(@PathVariable String orderId) {
         try {
@@ -107,10 +185,14 @@ public class TicketController {
         }
     }
 
+    // Current tickets only; includeArchived=true also reads past journeys from the archive
     @GetMapping("/user/{userEmail}")
-    public ResponseEntity<?> getTicketByUserEmail(@PathVariable String userEmail) {
+    public ResponseEntity<?> getTicketByUserEmail(@PathVariable String userEmail,
+                                                  @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
-            List<TicketBooking> tickets = ticketService.getTicketByUserEmail(userEmail);
+            List<TicketBooking> tickets = includeArchived
+                    ? ticketService.getTicketHistoryByUserEmail(userEmail)
+                    : ticketService.getTicketByUserEmail(userEmail);
             logger.info("Fetched tickets for user email: {}", userEmail);
             return ResponseEntity.ok(tickets);
         } catch (TicketException e) {
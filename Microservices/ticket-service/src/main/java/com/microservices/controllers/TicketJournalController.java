@@ -0,0 +1,27 @@
+package com.microservices.controllers;
+
+import com.microservices.component.TicketJournal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/tickets/journal")
+@RequiredArgsConstructor
+public class TicketJournalController {
+
+    private final TicketJournal ticketJournal;
+
+    @GetMapping
+    public ResponseEntity<?> stats() {
+        return ResponseEntity.ok(ticketJournal.stats());
+    }
+
+    // Audit trail of one ticket; scans the whole journal
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<?> history(@PathVariable Long ticketId) throws IOException {
+        return ResponseEntity.ok(ticketJournal.history(ticketId));
+    }
+}
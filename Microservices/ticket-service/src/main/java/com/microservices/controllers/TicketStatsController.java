@@ -0,0 +1,32 @@
+package com.microservices.controllers;
+
+import com.microservices.component.TicketStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/tickets/stats")
+@RequiredArgsConstructor
+public class TicketStatsController {
+
+    private final TicketStats ticketStats;
+
+    // Dashboard totals; from/to or trainId add per-day revenue and occupancy rows
+    @GetMapping
+    public ResponseEntity<?> stats(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(required = false) Long trainId) {
+        return ResponseEntity.ok(ticketStats.getStats(from, to, trainId));
+    }
+
+    // Rebuilds the aggregates from the ticket table now instead of at the next scheduled run
+    @PostMapping("/recompute")
+    public ResponseEntity<?> recompute() {
+        ticketStats.recompute();
+        return ResponseEntity.ok(ticketStats.getStats(null, null, null));
+    }
+}
@@ -0,0 +1,26 @@
+package com.microservices.controllers;
+
+import com.microservices.component.CachingTrainClient;
+import com.microservices.dto.TrainChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tickets/cache/trains")
+@RequiredArgsConstructor
+public class TrainCacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainCacheController.class);
+    private final CachingTrainClient cachingTrainClient;
+
+    // Called by train-service after updateTrain, toggleActiveStatus, deleteTrain and cancelTrain
+    @PostMapping("/invalidate")
+    public ResponseEntity<?> invalidate(@RequestBody TrainChangedEvent event) {
+        cachingTrainClient.invalidate(event.getTrainId());
+        logger.info("Train {} evicted from cache ({})", event.getTrainId(), event.getChange());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservices.controllers;
+
+import com.microservices.component.TrainCancellationPipeline;
+import com.microservices.model.TrainCancellationJob;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tickets/train-cancellations")
+@RequiredArgsConstructor
+public class TrainCancellationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainCancellationController.class);
+    private final TrainCancellationPipeline trainCancellationPipeline;
+
+    // Starts the mass cancellation of a train's tickets, or resumes an unfinished one.
+    // Called by train-service's cancelTrain; admin-only through the gateway.
+    @PostMapping("/{trainId}")
+    public ResponseEntity<?> start(@PathVariable Long trainId) {
+        TrainCancellationJob job = trainCancellationPipeline.start(trainId);
+        logger.info("Mass cancellation job {} running for train {}", job.getId(), trainId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{trainId}")
+    public ResponseEntity<?> status(@PathVariable Long trainId) {
+        TrainCancellationJob job = trainCancellationPipeline.getLatestJob(trainId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No cancellation job for train " + trainId);
+        }
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,6 @@
+package com.microservices.domain;
+
+public enum CancellationJobStatus {
+    RUNNING,
+    COMPLETED
+}
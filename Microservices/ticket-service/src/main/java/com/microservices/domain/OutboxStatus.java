@@ -0,0 +1,7 @@
+package com.microservices.domain;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.microservices.domain;
+
+public enum RefundStatus {
+    PENDING,
+    QUEUED, // handed to RefundQueue after a failed attempt
+    REFUNDED,
+    FAILED
+}
@@ -0,0 +1,20 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Revenue and occupancy of one train on one travel date
+@Data
+public class DailyTrainStatsDTO {
+    private Long trainId;
+    private LocalDate date;
+    private long confirmedTickets;
+    private long waitingTickets;
+    private long cancelledTickets;
+    private long seatsSold;
+    private Integer capacity; // null when train-service could not be asked
+    private Double occupancy; // seatsSold / capacity
+    private double revenue; // confirmed fares plus retained cancellation fees
+    private double cancellationFees;
+}
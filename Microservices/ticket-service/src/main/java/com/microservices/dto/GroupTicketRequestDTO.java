@@ -0,0 +1,19 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// One payment covering several passengers; each passenger gets their own ticket
+@Data
+public class GroupTicketRequestDTO {
+    private String userEmail;
+    private LocalDate date;
+    private String paymentId;
+    private String razorpaySignature;
+    private String orderId;
+    private int amount;
+    private String holdId; // optional, from POST /tickets/hold/{train_id} for all passengers
+    private List<PassengerDTO> passengers;
+}
@@ -0,0 +1,12 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GroupTicketResponseDTO {
+    private String orderId;
+    private int totalAmount;
+    private List<TicketResponseDTO> tickets;
+}
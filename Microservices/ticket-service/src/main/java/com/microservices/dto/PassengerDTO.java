@@ -0,0 +1,10 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+@Data
+public class PassengerDTO {
+    private String fullName;
+    private int age;
+    private String email;
+}
@@ -0,0 +1,14 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAdjustmentRequest {
+    private Long trainId;
+    // Negative to take seats, positive to give them back
+    private int delta;
+}
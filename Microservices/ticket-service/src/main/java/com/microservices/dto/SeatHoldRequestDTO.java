@@ -0,0 +1,12 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class SeatHoldRequestDTO {
+    private String userEmail;
+    private LocalDate date;
+    private Integer seatCount;
+}
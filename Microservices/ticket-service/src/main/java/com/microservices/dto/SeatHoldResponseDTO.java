@@ -0,0 +1,19 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponseDTO {
+    private String holdId;
+    private Long trainId;
+    private LocalDate date;
+    private int seatCount;
+    private Instant expiresAt;
+}
@@ -18,4 +18,5 @@ public class TicketRequestDTO {
     private String razorpaySignature;
     private String orderId;
     private int amount;
+    private String holdId; // optional, from POST /tickets/hold/{train_id}
 }
@@ -1,5 +1,6 @@
 package com.microservices.dto;
 
+import com.microservices.domain.TicketStatus;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -12,5 +13,6 @@ public class TicketResponseDTO {
       private String email;
       private String ticket_number;
       private LocalDate booking_date;
+      private TicketStatus status;
       private TrainDTO trainDetails;
 }
@@ -0,0 +1,21 @@
+package com.microservices.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Dashboard totals; days is only filled for a requested date range
+@Data
+public class TicketStatsDTO {
+    private long totalTickets;
+    private long confirmedTickets;
+    private long waitingTickets;
+    private long cancelledTickets;
+    private long seatsSold;
+    private double confirmedRevenue;
+    private double cancellationFees;
+    private double totalRevenue;
+    private LocalDateTime recomputedAt;
+    private List<DailyTrainStatsDTO> days;
+}
@@ -0,0 +1,14 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sent to services that cache train details when a train changes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainChangedEvent {
+    private Long trainId;
+    private String change; // UPDATED, ACTIVE_TOGGLED, DELETED or CANCELLED
+}
@@ -18,5 +18,7 @@ public class TrainDTO {
 
     private int noOfSeats;
 
+    private Integer totalSeats;
+
     private int amount;
 }
@@ -1,13 +1,18 @@
 package com.microservices.feign;
 
+import com.microservices.dto.SeatAdjustmentRequest;
 import com.microservices.dto.TrainDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "train-service", url = "http://localhost:5010")
+import java.util.List;
+
+// Injected through CachingTrainClient; the qualifier exposes the raw Feign proxy to it
+@FeignClient(name = "train-service", url = "${train-service.url:http://localhost:5010}", qualifiers = "remoteTrainClient", primary = false)
 public interface TrainClient {
     @GetMapping("/trains/get/{id}")
     TrainDTO getTrainById(@PathVariable("id") Long id);
@@ -15,4 +20,6 @@ public interface TrainClient {
     String decreaseSeats(@PathVariable("id") Long trainId, @RequestParam("count") int count);
     @PutMapping("/trains/{id}/seats/increase")
     String increaseSeats(@PathVariable("id") Long trainId, @RequestParam("count") int count);
+    @PutMapping("/trains/seats/batch")
+    String adjustSeats(@RequestBody List<SeatAdjustmentRequest> adjustments);
 }
@@ -0,0 +1,104 @@
+package com.microservices.model;
+
+import com.microservices.domain.RefundStatus;
+import com.microservices.domain.TicketStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Cold copy of a travelled or cancelled ticket, moved out of ticket_booking by TicketArchiver.
+// Same columns as TicketBooking plus archivedAt; read only for history and PNR lookups
+@Data
+@Entity
+@Table(name = "ticket_booking_archive", indexes = {
+        @Index(name = "idx_ticket_archive_user_email", columnList = "user_email"),
+        @Index(name = "idx_ticket_archive_ticket_number", columnList = "ticket_number")
+})
+public class ArchivedTicket {
+    @Id
+    @Column(name = "ticket_id")
+    private Long ticket_id;
+
+    @Column(name = "order_id")
+    private String orderId;
+
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    private RefundStatus refundStatus;
+
+    private String refundId;
+
+    private Double cancellationFee;
+
+    @Column(name = "booking_group")
+    private String bookingGroup;
+
+    private String fullName;
+
+    private int age;
+
+    private String email;
+
+    @Column(name = "ticket_number", length = 32)
+    private String ticketNumber;
+
+    private int amount;
+
+    // Partition key of the archive table
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    private Long trainId;
+
+    private String trainName;
+
+    private String source;
+
+    private String destination;
+
+    @Column(name = "no_of_seats")
+    private int noOfSeats;
+
+    private LocalDateTime departureTime;
+
+    private LocalDateTime waitlistedAt;
+
+    @Enumerated(EnumType.STRING)
+    private TicketStatus status;
+
+    private LocalDateTime archivedAt;
+
+    // Same shape as a live ticket, so history responses do not change for clients
+    public TicketBooking toTicketBooking() {
+        TicketBooking ticket = new TicketBooking();
+        ticket.setTicket_id(ticket_id);
+        ticket.setOrderId(orderId);
+        ticket.setPaymentId(paymentId);
+        ticket.setRefundStatus(refundStatus);
+        ticket.setRefundId(refundId);
+        ticket.setCancellationFee(cancellationFee);
+        ticket.setBookingGroup(bookingGroup);
+        ticket.setFullName(fullName);
+        ticket.setAge(age);
+        ticket.setEmail(email);
+        ticket.setTicketNumber(ticketNumber);
+        ticket.setAmount(amount);
+        ticket.setBookingDate(bookingDate);
+        ticket.setUserEmail(userEmail);
+        ticket.setTrainId(trainId);
+        ticket.setTrainName(trainName);
+        ticket.setSource(source);
+        ticket.setDestination(destination);
+        ticket.setNoOfSeats(noOfSeats);
+        ticket.setDepartureTime(departureTime);
+        ticket.setWaitlistedAt(waitlistedAt);
+        ticket.setStatus(status);
+        return ticket;
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservices.model;
+
+import com.microservices.domain.RefundStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Refund that failed on first try, retried by RefundQueue until it succeeds or runs out of attempts
+@Data
+@Entity
+@Table(name = "refund_queue", indexes = @Index(name = "idx_refund_queue_status_next", columnList = "status, next_attempt_at"))
+public class RefundRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private String paymentId;
+
+    // Razorpay amounts are in paise
+    private int amountPaise;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RefundStatus status = RefundStatus.PENDING;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private String refundId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
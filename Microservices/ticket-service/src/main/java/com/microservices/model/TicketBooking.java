@@ -1,5 +1,6 @@
 package com.microservices.model;
 
+import com.microservices.domain.RefundStatus;
 import com.microservices.domain.TicketStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -10,9 +11,16 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_ticket_train_date_status", columnList = "train_id, booking_date, status"),
+        @Index(name = "idx_ticket_booking_group", columnList = "booking_group"),
+        @Index(name = "idx_ticket_booking_date", columnList = "booking_date")
+})
 public class TicketBooking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids are handed out in blocks, which lets Hibernate batch inserts (IDENTITY cannot)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_booking_seq", allocationSize = 50)
     @Column(name = "ticket_id")
     private Long ticket_id;
 
@@ -22,6 +30,19 @@ public class TicketBooking {
 
     private String paymentId; // Razorpay payment ID for refunds
 
+    // Set when a refund is owed; PENDING rows are picked up again after a crash
+    @Enumerated(EnumType.STRING)
+    private RefundStatus refundStatus;
+
+    private String refundId;
+
+    // Part of the fare kept on a passenger cancellation, in rupees; null when nothing was kept
+    private Double cancellationFee;
+
+    // Order ID of the group booking this ticket belongs to, null for single bookings
+    @Column(name = "booking_group")
+    private String bookingGroup;
+
     @NotBlank(message = "Full name is required")
     private String fullName;
 
@@ -32,6 +53,8 @@ public class TicketBooking {
     @NotBlank(message = "Email is required")
     private String email;
 
+    // PNR from TicketNumberGenerator; the unique constraint also indexes lookups by PNR
+    @Column(name = "ticket_number", unique = true, length = 32)
     private String ticketNumber;
    
     @Min(value = 1, message = "Amount must be positive")
@@ -60,6 +83,9 @@ public class TicketBooking {
 
     private LocalDateTime departureTime;
 
+    // When the ticket joined the waitlist; orders promotion
+    private LocalDateTime waitlistedAt;
+
     @Enumerated(EnumType.STRING)
     private TicketStatus status = TicketStatus.WAITING;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.microservices.model;
+
+import com.microservices.domain.CancellationJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Progress of one train's mass cancellation; RUNNING jobs are resumed at startup
+@Data
+@Entity
+@Table(name = "train_cancellation_jobs", indexes = @Index(name = "idx_cancellation_job_status", columnList = "status"))
+public class TrainCancellationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "train_id", nullable = false)
+    private Long trainId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CancellationJobStatus status;
+
+    private int cancelledTickets;
+    private int refunded;
+    private int refundFailed;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
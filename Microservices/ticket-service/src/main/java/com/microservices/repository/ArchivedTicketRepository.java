@@ -0,0 +1,28 @@
+package com.microservices.repository;
+
+import com.microservices.model.ArchivedTicket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedTicketRepository extends JpaRepository<ArchivedTicket, Long> {
+
+    List<ArchivedTicket> findByUserEmailOrderByBookingDateDesc(String userEmail);
+
+    Optional<ArchivedTicket> findFirstByTicketNumber(String ticketNumber);
+
+    // Same shape as TicketRepository.aggregateByTrainDateAndStatus, so dashboard totals keep archived tickets
+    @Query("SELECT t.trainId, t.bookingDate, t.status, COUNT(t), COALESCE(SUM(t.noOfSeats), 0), COALESCE(SUM(t.amount), 0), "
+            + "COALESCE(SUM(t.cancellationFee), 0) FROM ArchivedTicket t GROUP BY t.trainId, t.bookingDate, t.status")
+    List<Object[]> aggregateByTrainDateAndStatus();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM ArchivedTicket t ORDER BY t.ticket_id")
+    Stream<ArchivedTicket> streamAll();
+}
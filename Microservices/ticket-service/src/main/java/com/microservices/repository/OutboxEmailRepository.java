@@ -0,0 +1,22 @@
+package com.microservices.repository;
+
+import com.microservices.model.OutboxEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // Claims due messages; SKIP LOCKED lets several ticket-service instances drain the outbox side by side
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEmail> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail o WHERE o.status = com.microservices.domain.OutboxStatus.SENT AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
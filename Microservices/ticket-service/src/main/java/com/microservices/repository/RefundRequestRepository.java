@@ -0,0 +1,24 @@
+package com.microservices.repository;
+
+import com.microservices.domain.RefundStatus;
+import com.microservices.model.RefundRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface RefundRequestRepository extends JpaRepository<RefundRequest, Long> {
+
+    // Claims due refunds; SKIP LOCKED lets several ticket-service instances work the queue side by side
+    @Query(value = "SELECT * FROM refund_queue WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<RefundRequest> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Row count and oldest createdAt for each of the given statuses, in one query
+    @Query("SELECT r.status, COUNT(r), MIN(r.createdAt) FROM RefundRequest r "
+            + "WHERE r.status IN :statuses GROUP BY r.status")
+    List<Object[]> summarizeByStatus(@Param("statuses") Collection<RefundStatus> statuses);
+}
@@ -1,20 +1,75 @@
 package com.microservices.repository;
 
+import com.microservices.domain.RefundStatus;
+import com.microservices.domain.TicketStatus;
 import com.microservices.model.TicketBooking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TicketRepository extends JpaRepository<TicketBooking, Long> {
     List<TicketBooking> findByTrainId(Long trainId);
     Optional<TicketBooking> findByOrderId(String orderId);
+    Optional<TicketBooking> findByTicketNumber(String ticketNumber);
+    boolean existsByBookingGroup(String bookingGroup);
     List<TicketBooking> findByUserEmail(String userEmail);
     
-    @Query("SELECT COALESCE(SUM(t.noOfSeats), 0) FROM TicketBooking t WHERE t.trainId = :trainId AND DATE(t.bookingDate) = :date AND t.status = 'CONFIRMED'")
+    @Query("SELECT COALESCE(SUM(t.noOfSeats), 0) FROM TicketBooking t WHERE t.trainId = :trainId AND t.bookingDate = :date AND t.status = 'CONFIRMED'")
     Integer getBookedSeatsCountByTrainAndDate(@Param("trainId") Long trainId, @Param("date") LocalDate date);
-}
 
+    @Query("SELECT t.trainId, t.bookingDate, SUM(t.noOfSeats) FROM TicketBooking t WHERE t.status = :status AND t.bookingDate >= :from GROUP BY t.trainId, t.bookingDate")
+    List<Object[]> sumSeatsByTrainAndDate(@Param("status") TicketStatus status, @Param("from") LocalDate from);
+
+    // Full recompute of the dashboard aggregates: tickets, seats, fares and kept fees per train, date and status
+    @Query("SELECT t.trainId, t.bookingDate, t.status, COUNT(t), COALESCE(SUM(t.noOfSeats), 0), COALESCE(SUM(t.amount), 0), "
+            + "COALESCE(SUM(t.cancellationFee), 0) FROM TicketBooking t GROUP BY t.trainId, t.bookingDate, t.status")
+    List<Object[]> aggregateByTrainDateAndStatus();
+
+    @Query("SELECT t.ticket_id, t.trainId, t.bookingDate, t.noOfSeats, COALESCE(t.waitlistedAt, t.departureTime) FROM TicketBooking t WHERE t.status = :status AND t.bookingDate >= :from")
+    List<Object[]> findWaitlistEntries(@Param("status") TicketStatus status, @Param("from") LocalDate from);
+
+    // Live tickets of a train from a date on, oldest first; the mass cancellation pipeline takes them a chunk at a time
+    @Query("SELECT t FROM TicketBooking t WHERE t.trainId = :trainId AND t.bookingDate >= :from AND t.status IN :statuses ORDER BY t.ticket_id")
+    List<TicketBooking> findByTrainFromDate(@Param("trainId") Long trainId, @Param("from") LocalDate from,
+                                            @Param("statuses") List<TicketStatus> statuses, Pageable pageable);
+
+    @Query("SELECT t FROM TicketBooking t WHERE t.trainId = :trainId AND t.refundStatus = :refundStatus AND t.ticket_id > :after ORDER BY t.ticket_id")
+    List<TicketBooking> findRefundsAfter(@Param("trainId") Long trainId, @Param("refundStatus") RefundStatus refundStatus,
+                                         @Param("after") Long after, Pageable pageable);
+
+    // Keyset page: rows after the cursor in id order, so deep pages cost the same as the first
+    @Query("SELECT t FROM TicketBooking t WHERE t.ticket_id > :after ORDER BY t.ticket_id")
+    List<TicketBooking> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    // Columns copied verbatim into ticket_booking_archive
+    String ARCHIVE_COLUMNS = "ticket_id, order_id, payment_id, refund_status, refund_id, cancellation_fee, booking_group, "
+            + "full_name, age, email, ticket_number, amount, booking_date, user_email, train_id, train_name, source, "
+            + "destination, no_of_seats, departure_time, waitlisted_at, status";
+
+    @Query("SELECT MIN(t.bookingDate) FROM TicketBooking t WHERE t.bookingDate < :cutoff")
+    LocalDate findOldestBookingDateBefore(@Param("cutoff") LocalDate cutoff);
+
+    // Moves one chunk of travelled or cancelled tickets to the archive in a single statement; refunds still in flight stay
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM ticket_booking WHERE ticket_id IN ("
+            + "SELECT ticket_id FROM ticket_booking WHERE booking_date < :cutoff AND status IN ('CONFIRMED', 'CANCELLED') "
+            + "AND (refund_status IS NULL OR refund_status NOT IN ('PENDING', 'QUEUED')) "
+            + "ORDER BY booking_date, ticket_id LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING *) "
+            + "INSERT INTO ticket_booking_archive (" + ARCHIVE_COLUMNS + ", archived_at) "
+            + "SELECT " + ARCHIVE_COLUMNS + ", now() FROM moved", nativeQuery = true)
+    int archiveBefore(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM TicketBooking t ORDER BY t.ticket_id")
+    Stream<TicketBooking> streamAll();
+}
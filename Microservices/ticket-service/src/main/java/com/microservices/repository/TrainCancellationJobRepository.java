@@ -0,0 +1,13 @@
+package com.microservices.repository;
+
+import com.microservices.domain.CancellationJobStatus;
+import com.microservices.model.TrainCancellationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TrainCancellationJobRepository extends JpaRepository<TrainCancellationJob, Long> {
+    List<TrainCancellationJob> findByStatus(CancellationJobStatus status);
+    Optional<TrainCancellationJob> findFirstByTrainIdOrderByIdDesc(Long trainId);
+}
@@ -1,23 +1,36 @@
 package com.microservices.service;
 
 import com.microservices.dto.CancellationResponseDTO;
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.GroupTicketRequestDTO;
+import com.microservices.dto.GroupTicketResponseDTO;
+import com.microservices.dto.SeatHoldRequestDTO;
+import com.microservices.dto.SeatHoldResponseDTO;
 import com.microservices.dto.TicketRequestDTO;
 import com.microservices.dto.TicketResponseDTO;
 import com.microservices.model.TicketBooking;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TicketService {
     TicketResponseDTO bookTicket(Long train_id,TicketRequestDTO req);
+    GroupTicketResponseDTO bookGroupTicket(Long train_id, GroupTicketRequestDTO req);
+    SeatHoldResponseDTO holdSeats(Long train_id, SeatHoldRequestDTO req);
+    String releaseHold(String holdId);
     String cancelTicket(Long ticketId);
     CancellationResponseDTO cancelTicketWithRefund(Long ticketId);
     // int getAvailableSeats(Long trainId);
     TicketBooking getTicketDetails(Long ticket_id);
     List<TicketBooking> getAllTickets();
+    CursorPage<TicketBooking> getTicketsPage(Long after, int size);
+    void forEachTicket(Consumer<TicketBooking> action);
     TicketBooking getTicketByOrderId(String orderId);
+    TicketBooking getTicketByPnr(String ticketNumber);
     TicketBooking updateTicket(Long id, TicketBooking updatedTicket);
     List<TicketBooking> getTicketByUserEmail(String userEmail);
+    List<TicketBooking> getTicketHistoryByUserEmail(String userEmail);
     int getBookedSeatsCountByTrainAndDate(Long trainId, LocalDate date);
     // String getOperationalStatus(Long trainId);
 }
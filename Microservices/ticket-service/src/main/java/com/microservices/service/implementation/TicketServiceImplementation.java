@@ -1,67 +1,148 @@
 package com.microservices.service.implementation;
 
-// import com.microservices.component.KafkaProducerService;
+import com.microservices.component.MailOutbox;
 import com.microservices.component.Methods;
+import com.microservices.component.RecentOrders;
+import com.microservices.component.RefundQueue;
+import com.microservices.component.ReplicaRouter;
+import com.microservices.component.SeatHoldRegistry;
+import com.microservices.component.SeatInventory;
+import com.microservices.component.StageTimers;
+import com.microservices.component.TicketEventBus;
+import com.microservices.component.TicketStats;
+import com.microservices.component.Waitlist;
+import com.microservices.domain.RefundStatus;
 import com.microservices.domain.TicketStatus;
 import com.microservices.dto.CancellationResponseDTO;
-// import com.microservices.dto.TicketBookedEvent;
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.GroupTicketRequestDTO;
+import com.microservices.dto.GroupTicketResponseDTO;
+import com.microservices.dto.PassengerDTO;
+import com.microservices.dto.SeatHoldRequestDTO;
+import com.microservices.dto.SeatHoldResponseDTO;
+import com.microservices.dto.TicketBookedEvent;
 import com.microservices.dto.TicketRequestDTO;
 import com.microservices.dto.TicketResponseDTO;
 import com.microservices.dto.TrainDTO;
 import com.microservices.exception.TicketException;
 import com.microservices.feign.PaymentClient;
 import com.microservices.feign.TrainClient;
+import com.microservices.model.ArchivedTicket;
 import com.microservices.model.TicketBooking;
+import com.microservices.repository.ArchivedTicketRepository;
 import com.microservices.repository.TicketRepository;
 import com.microservices.service.TicketService;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TicketServiceImplementation implements TicketService {
     private static final Logger logger = LoggerFactory.getLogger(TicketServiceImplementation.class);
+    private static final int MAX_GROUP_SIZE = 6;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String BOOK = "book";
+    private static final String CANCEL = "cancel";
     private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
     private final TrainClient trainClient;
     private final Methods methods;
     private final PaymentClient paymentClient;
-    // private final KafkaProducerService kafkaProducerService;
-    private final JavaMailSender mailSender;
-
+    private final SeatInventory seatInventory;
+    private final TicketEventBus ticketEventBus;
+    private final MailOutbox mailOutbox;
+    private final SeatHoldRegistry seatHoldRegistry;
+    private final Waitlist waitlist;
+    private final EntityManager entityManager;
+    private final RecentOrders recentOrders;
+    private final TransactionTemplate transactionTemplate;
+    private final RefundQueue refundQueue;
+    private final TicketStats ticketStats;
+    private final ReplicaRouter replicaRouter;
+    private final StageTimers stageTimers;
+
+    // Idempotent on orderId: a retried request gets the original ticket back. The unique
+    // order_id constraint decides races; the recent-orders filter only lets fresh orders skip the pre-read
     @Override
-    @Transactional
     public TicketResponseDTO bookTicket(Long train_id, @Valid TicketRequestDTO request) {
+        String orderId = request.getOrderId();
+        Optional<TicketBooking> existing = stageTimers.time(BOOK, "duplicate_check", () -> recentOrders.mightContain(orderId)
+                ? replicaRouter.onPrimary(() -> ticketRepository.findByOrderId(orderId))
+                : Optional.<TicketBooking>empty());
+        if (existing.isPresent()) {
+            return replayBooking(existing.get(), request);
+        }
+        try {
+            // Covers the stages below plus the commit
+            TicketResponseDTO response = stageTimers.time(BOOK, "transaction",
+                    () -> transactionTemplate.execute(status -> createTicket(train_id, request)));
+            recentOrders.add(orderId);
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // Another request for the same order committed first
+            TicketBooking committed = replicaRouter.onPrimary(() -> ticketRepository.findByOrderId(orderId)).orElseThrow(() -> e);
+            recentOrders.add(orderId);
+            return replayBooking(committed, request);
+        }
+    }
+
+    private TicketResponseDTO replayBooking(TicketBooking ticket, TicketRequestDTO request) {
+        if (!Objects.equals(ticket.getPaymentId(), request.getPaymentId())) {
+            logger.warn("Duplicate booking attempt for orderId: {}", ticket.getOrderId());
+            throw new TicketException("Ticket already booked for this payment/order.");
+        }
+        logger.info("Returning existing ticket for retried orderId: {}", ticket.getOrderId());
+        return toResponse(ticket, trainClient.getTrainById(ticket.getTrainId()));
+    }
+
+    private TicketResponseDTO createTicket(Long train_id, TicketRequestDTO request) {
         String paymentId = request.getPaymentId();
         String razorpaySign = request.getRazorpaySignature();
         String orderId = request.getOrderId();
 
         // 1. Verify payment
-        boolean isPaymentVerified = paymentClient.verifyPayment(orderId, paymentId, razorpaySign);
+        boolean isPaymentVerified = stageTimers.time(BOOK, "payment_verify",
+                () -> paymentClient.verifyPayment(orderId, paymentId, razorpaySign));
         if (!isPaymentVerified) {
             logger.warn("Payment verification failed for orderId: {}", orderId);
             throw new TicketException("Payment verification failed");
         }
 
-        // 2. Prevent duplicate booking for same payment
-        Optional<TicketBooking> existing = ticketRepository.findByOrderId(orderId);
-        if (existing.isPresent()) {
-            logger.warn("Duplicate booking attempt for orderId: {}", orderId);
-            throw new TicketException("Ticket already booked for this payment/order.");
+        // 2. Convert the seat hold placed before payment, if any
+        if (request.getHoldId() != null) {
+            claimHold(request.getHoldId(), request.getUserEmail(), train_id, request.getDate(), request.getSeatCount(),
+                    orderId);
         }
 
         // 3. Fetch train details
-        TrainDTO train = trainClient.getTrainById(train_id);
+        TrainDTO train = stageTimers.time(BOOK, "train_fetch", () -> trainClient.getTrainById(train_id));
+
+        // 3a. Without a hold, seats are reserved before the insert; a train that is already full
+        // puts the ticket on the waitlist. The reservation is given back if the booking rolls back.
+        boolean checkCapacity = request.getHoldId() == null && train.getTotalSeats() != null;
+        boolean waitlisted = checkCapacity && !seatInventory.tryReserve(train_id, request.getDate(),
+                request.getSeatCount(), train.getTotalSeats(),
+                () -> seatHoldRegistry.getHeldSeats(train_id, request.getDate()));
 
         // 4. Book the ticket
         TicketBooking ticket = new TicketBooking();
@@ -76,57 +157,46 @@ public class TicketServiceImplementation implements TicketService {
         ticket.setTrainName(train.getTrainName());
         ticket.setSource(train.getSource());
         ticket.setDestination(train.getDestination());
-        ticket.setDepartureTime(LocalDateTime.now());
-        ticket.setStatus(TicketStatus.CONFIRMED);
+        // Postgres keeps microseconds; truncating keeps the waitlist order the same after a reload
+        ticket.setDepartureTime(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ticket.setStatus(waitlisted ? TicketStatus.WAITING : TicketStatus.CONFIRMED);
         ticket.setNoOfSeats(request.getSeatCount());
         ticket.setOrderId(orderId);
         ticket.setPaymentId(paymentId); // Store payment ID for refunds
+        if (waitlisted) {
+            ticket.setWaitlistedAt(ticket.getDepartureTime());
+        }
 
-        ticketRepository.save(ticket);
+        // Flush now so a duplicate order_id fails here, before any side effects are queued
+        stageTimers.time(BOOK, "save", () -> ticketRepository.saveAndFlush(ticket));
+        ticketStats.record(null, ticket);
+        if (waitlisted) {
+            waitlist.offer(ticket.getTicket_id(), train_id, ticket.getBookingDate(), ticket.getNoOfSeats(),
+                    ticket.getWaitlistedAt());
+        } else if (!checkCapacity) {
+            seatInventory.reserve(train_id, ticket.getBookingDate(), ticket.getNoOfSeats());
+        }
 
         // 5. Update train seats
         // trainClient.decreaseSeats(train_id, request.getSeatCount());
 
         // 6. Prepare response
-        TicketResponseDTO response = new TicketResponseDTO();
-        response.setFullName(ticket.getFullName());
-        response.setAge(ticket.getAge());
-        response.setEmail(ticket.getEmail());
-        response.setTicket_number(ticket.getTicketNumber());
-        response.setBooking_date(ticket.getBookingDate());
-        response.setTrainDetails(train);
+        TicketResponseDTO response = toResponse(ticket, train);
          
 
-        // temprary commented out kafka producer service because of deployment cost
-        // try {
-        // // 7. Send Kafka event
-        // logger.info("Sending Kafka event for ticket booking: {}",
-        // ticket.getTicketNumber());
-        // TicketBookedEvent event = new TicketBookedEvent();
-        // event.setEmail(ticket.getEmail());
-        // event.setTicketNumber(ticket.getTicketNumber());
-        // event.setTrainName(ticket.getTrainName());
-        // event.setSource(ticket.getSource());
-        // event.setDestination(ticket.getDestination());
-        // event.setDepartureTime(String.valueOf(ticket.getDepartureTime()));
-        // event.setFullName(ticket.getFullName());
-        // event.setAge(ticket.getAge());
-        // event.setNoOfSeats(ticket.getNoOfSeats());
-        // event.setOrderId(ticket.getOrderId());
-
-        // kafkaProducerService.sendTicketBookedEvent(event);
-        // } catch (Exception e) {
-        // logger.error("Kafka send failed: {}", e.getMessage());
-        // }
-
-        // send confirmation email using java smtp 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(ticket.getEmail());
-            message.setSubject("Ticket Booked: " + ticket.getTicketNumber());
-            message.setText(
+        // 7. Announce the booking once it commits; the bus never blocks the booking
+        if (!waitlisted) {
+            ticketEventBus.publishAfterCommit(toBookedEvent(ticket));
+        }
+
+        // 8. Queue the email, unless the event bus already confirms; MailOutbox delivers it after commit
+        if (waitlisted || !ticketEventBus.sendsConfirmations()) {
+            mailOutbox.enqueue(ticket.getEmail(),
+                    (waitlisted ? "Ticket Waitlisted: " : "Ticket Booked: ") + ticket.getTicketNumber(),
                     "Dear " + ticket.getFullName() + ",\n\n" +
-                            "Your ticket has been booked successfully!\n" +
+                            (waitlisted
+                                    ? "The train is full, so your ticket is on the waitlist. We will confirm it as soon as seats free up.\n"
+                                    : "Your ticket has been booked successfully!\n") +
                             "Train: " + ticket.getTrainName() + "\n" +
                             "Source: " + ticket.getSource() + "\n" +
                             "Destination: " + ticket.getDestination() + "\n" +
@@ -134,15 +204,197 @@ public class TicketServiceImplementation implements TicketService {
                             "Seats: " + ticket.getNoOfSeats() + "\n" +
                             "Ticket Number: " + ticket.getTicketNumber() + "\n\n" +
                             "Thank you for booking with us.");
-            mailSender.send(message);
-            logger.info("Email sent to {}", ticket.getEmail());
-        } catch (Exception e) {
-            logger.error("Email send failed: {}", e.getMessage());
         }
         logger.info("Ticket booked successfully for orderId: {}", orderId);
         return response;
     }
 
+    // Books several passengers under one payment: a single verification, one train
+    // lookup, one seat reservation or hold for the whole group and one batched insert
+    @Override
+    @Transactional
+    public GroupTicketResponseDTO bookGroupTicket(Long train_id, GroupTicketRequestDTO request) {
+        List<PassengerDTO> passengers = request.getPassengers();
+        if (passengers == null || passengers.isEmpty()) {
+            throw new TicketException("At least one passenger is required");
+        }
+        if (passengers.size() > MAX_GROUP_SIZE) {
+            throw new TicketException("A group booking can have at most " + MAX_GROUP_SIZE + " passengers");
+        }
+        String orderId = request.getOrderId();
+
+        // 1. Verify payment once for the whole group
+        boolean isPaymentVerified = paymentClient.verifyPayment(orderId, request.getPaymentId(), request.getRazorpaySignature());
+        if (!isPaymentVerified) {
+            logger.warn("Payment verification failed for group orderId: {}", orderId);
+            throw new TicketException("Payment verification failed");
+        }
+
+        // 2. Prevent duplicate booking for same payment
+        if (ticketRepository.existsByBookingGroup(orderId) || ticketRepository.findByOrderId(orderId).isPresent()) {
+            logger.warn("Duplicate group booking attempt for orderId: {}", orderId);
+            throw new TicketException("Ticket already booked for this payment/order.");
+        }
+
+        // 3. Convert the group's seat hold, if any
+        int seatCount = passengers.size();
+        if (request.getHoldId() != null) {
+            claimHold(request.getHoldId(), request.getUserEmail(), train_id, request.getDate(), seatCount, orderId);
+        }
+
+        // 4. Fetch train details
+        TrainDTO train = stageTimers.time(BOOK, "train_fetch", () -> trainClient.getTrainById(train_id));
+
+        // 4a. Same capacity check as a single booking: without a hold the whole group is reserved
+        // before the insert, or waitlisted together if the train is short
+        boolean checkCapacity = request.getHoldId() == null && train.getTotalSeats() != null;
+        boolean waitlisted = checkCapacity && !seatInventory.tryReserve(train_id, request.getDate(),
+                seatCount, train.getTotalSeats(), () -> seatHoldRegistry.getHeldSeats(train_id, request.getDate()));
+
+        // 5. Build one ticket per passenger; the first carries any remainder of the split amount
+        int share = request.getAmount() / seatCount;
+        int remainder = request.getAmount() % seatCount;
+        LocalDateTime departure = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<TicketBooking> tickets = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            PassengerDTO passenger = passengers.get(i);
+            TicketBooking ticket = new TicketBooking();
+            ticket.setAmount(i == 0 ? share + remainder : share);
+            ticket.setFullName(passenger.getFullName());
+            ticket.setAge(passenger.getAge());
+            ticket.setEmail(passenger.getEmail());
+            ticket.setBookingDate(request.getDate());
+            ticket.setTicketNumber(methods.generateTicketNumber());
+            ticket.setTrainId(train_id);
+            ticket.setUserEmail(request.getUserEmail());
+            ticket.setTrainName(train.getTrainName());
+            ticket.setSource(train.getSource());
+            ticket.setDestination(train.getDestination());
+            ticket.setDepartureTime(departure);
+            ticket.setStatus(waitlisted ? TicketStatus.WAITING : TicketStatus.CONFIRMED);
+            if (waitlisted) {
+                ticket.setWaitlistedAt(departure);
+            }
+            ticket.setNoOfSeats(1);
+            // order_id is unique per ticket, so each passenger gets a suffixed copy
+            ticket.setOrderId(orderId + "-P" + (i + 1));
+            ticket.setBookingGroup(orderId);
+            ticket.setPaymentId(request.getPaymentId());
+            tickets.add(ticket);
+        }
+
+        // 6. Insert all tickets in one JDBC batch
+        ticketRepository.saveAll(tickets);
+        if (!checkCapacity) {
+            seatInventory.reserve(train_id, request.getDate(), seatCount);
+        }
+        for (TicketBooking ticket : tickets) {
+            ticketStats.record(null, ticket);
+            if (waitlisted) {
+                // Same join time for the group, so the passengers keep their order on the list
+                waitlist.offer(ticket.getTicket_id(), train_id, ticket.getBookingDate(), 1, ticket.getWaitlistedAt());
+            } else {
+                ticketEventBus.publishAfterCommit(toBookedEvent(ticket));
+            }
+        }
+
+        // 7. Queue one email per distinct passenger address, unless the event bus already confirms each ticket
+        StringBuilder body = new StringBuilder(waitlisted
+                ? "The train is full, so your group booking is on the waitlist. We will confirm each ticket as soon as seats free up.\n"
+                : "Your group booking has been confirmed!\n")
+                .append("Train: ").append(train.getTrainName()).append("\n")
+                .append("Source: ").append(train.getSource()).append("\n")
+                .append("Destination: ").append(train.getDestination()).append("\n")
+                .append("Date: ").append(request.getDate()).append("\n\n");
+        for (TicketBooking ticket : tickets) {
+            body.append(ticket.getFullName()).append(" - Ticket Number: ").append(ticket.getTicketNumber()).append("\n");
+        }
+        body.append("\nThank you for booking with us.");
+        Set<String> recipients = new LinkedHashSet<>();
+        for (TicketBooking ticket : tickets) {
+            recipients.add(ticket.getEmail());
+        }
+        if (waitlisted || !ticketEventBus.sendsConfirmations()) {
+            for (String recipient : recipients) {
+                mailOutbox.enqueue(recipient,
+                        (waitlisted ? "Group Booking Waitlisted: " : "Group Booking Confirmed: ") + orderId, body.toString());
+            }
+        }
+
+        GroupTicketResponseDTO response = new GroupTicketResponseDTO();
+        response.setOrderId(orderId);
+        response.setTotalAmount(request.getAmount());
+        List<TicketResponseDTO> ticketResponses = new ArrayList<>(seatCount);
+        for (TicketBooking ticket : tickets) {
+            TicketResponseDTO ticketResponse = toResponse(ticket, train);
+            ticketResponse.setUserEmail(ticket.getUserEmail());
+            ticketResponses.add(ticketResponse);
+        }
+        response.setTickets(ticketResponses);
+        logger.info("Group booking of {} passengers {} for orderId: {}", seatCount,
+                waitlisted ? "waitlisted" : "confirmed", orderId);
+        return response;
+    }
+
+    private TicketResponseDTO toResponse(TicketBooking ticket, TrainDTO train) {
+        TicketResponseDTO response = new TicketResponseDTO();
+        response.setFullName(ticket.getFullName());
+        response.setAge(ticket.getAge());
+        response.setEmail(ticket.getEmail());
+        response.setTicket_number(ticket.getTicketNumber());
+        response.setBooking_date(ticket.getBookingDate());
+        response.setStatus(ticket.getStatus());
+        response.setTrainDetails(train);
+        return response;
+    }
+
+    private TicketBookedEvent toBookedEvent(TicketBooking ticket) {
+        TicketBookedEvent event = new TicketBookedEvent();
+        event.setEmail(ticket.getEmail());
+        event.setTicketNumber(ticket.getTicketNumber());
+        event.setTrainName(ticket.getTrainName());
+        event.setSource(ticket.getSource());
+        event.setDestination(ticket.getDestination());
+        event.setDepartureTime(String.valueOf(ticket.getDepartureTime()));
+        event.setFullName(ticket.getFullName());
+        event.setAge(ticket.getAge());
+        event.setNoOfSeats(ticket.getNoOfSeats());
+        event.setOrderId(ticket.getOrderId());
+        return event;
+    }
+
+    @Override
+    public SeatHoldResponseDTO holdSeats(Long train_id, SeatHoldRequestDTO request) {
+        int seats = request.getSeatCount() != null ? request.getSeatCount() : 0;
+        if (seats < 1 || seats > MAX_GROUP_SIZE) {
+            throw new TicketException("Seat count must be between 1 and " + MAX_GROUP_SIZE);
+        }
+        if (request.getDate() == null || request.getDate().isBefore(LocalDate.now())) {
+            throw new TicketException("Travel date must be today or later");
+        }
+        TrainDTO train = trainClient.getTrainById(train_id);
+        if (train.getTotalSeats() == null) {
+            throw new TicketException("Seat capacity unknown for train: " + train_id);
+        }
+        SeatHoldRegistry.Hold hold = seatHoldRegistry.hold(train_id, request.getDate(), seats,
+                train.getTotalSeats(), request.getUserEmail());
+        if (hold == null) {
+            logger.info("Hold of {} seats rejected for train {} on {}", seats, train_id, request.getDate());
+            throw new TicketException("Not enough seats available");
+        }
+        logger.info("Seat hold {} placed for train {} on {}", hold.getHoldId(), train_id, request.getDate());
+        return new SeatHoldResponseDTO(hold.getHoldId(), train_id, hold.getDate(), hold.getSeats(), hold.getExpiresAt());
+    }
+
+    @Override
+    public String releaseHold(String holdId) {
+        if (!seatHoldRegistry.release(holdId)) {
+            throw new TicketException("Seat hold not found or already used: " + holdId);
+        }
+        logger.info("Seat hold released: {}", holdId);
+        return "Seat hold " + holdId + " released";
+    }
+
     // 8. Update ticket details
     // This method allows updating ticket details like full name, age, etc.
     @Override
@@ -152,6 +404,11 @@ public class TicketServiceImplementation implements TicketService {
                     logger.warn("Ticket not found for update: {}", id);
                     return new TicketException("Ticket not found with id: " + id);
                 });
+        boolean wasConfirmed = existing.getStatus() == TicketStatus.CONFIRMED;
+        TicketStats.Snapshot before = ticketStats.snapshot(existing);
+        Long oldTrainId = existing.getTrainId();
+        LocalDate oldDate = existing.getBookingDate();
+        int oldSeats = existing.getNoOfSeats();
         existing.setOrderId(updatedTicket.getOrderId());
         existing.setFullName(updatedTicket.getFullName());
         existing.setAge(updatedTicket.getAge());
@@ -165,11 +422,20 @@ public class TicketServiceImplementation implements TicketService {
         existing.setNoOfSeats(updatedTicket.getNoOfSeats());
         existing.setDepartureTime(updatedTicket.getDepartureTime());
         existing.setStatus(updatedTicket.getStatus());
+        TicketBooking saved = ticketRepository.save(existing);
+        ticketStats.record(before, saved);
+        if (wasConfirmed) {
+            seatInventory.release(oldTrainId, oldDate, oldSeats);
+        }
+        if (saved.getStatus() == TicketStatus.CONFIRMED) {
+            seatInventory.reserve(saved.getTrainId(), saved.getBookingDate(), saved.getNoOfSeats());
+        }
         logger.info("Ticket updated: {}", id);
-        return ticketRepository.save(existing);
+        return saved;
     }
 
     @Override
+    @Transactional
     public String cancelTicket(Long ticketId) {
         Optional<TicketBooking> otp = ticketRepository.findById(ticketId);
         if (otp.isPresent()) {
@@ -178,10 +444,8 @@ public class TicketServiceImplementation implements TicketService {
                 logger.warn("Ticket already cancelled: {}", ticketId);
                 return "Ticket " + ticket.getTicketNumber() + " already cancelled!";
             }
-            if (ticket.getStatus() == TicketStatus.WAITING) {
-                logger.warn("Ticket is pending confirmation: {}", ticketId);
-                return "Ticket " + ticket.getTicketNumber() + " is pending, Please confirm it";
-            }
+            boolean wasWaiting = ticket.getStatus() == TicketStatus.WAITING;
+            TicketStats.Snapshot before = ticketStats.snapshot(ticket);
 
             // Process refund if payment ID exists
             String refundMessage = "";
@@ -193,11 +457,15 @@ public class TicketServiceImplementation implements TicketService {
                     // Call payment service to process refund
                     String refundId = paymentClient.refundPayment(ticket.getPaymentId(), refundAmount);
                     logger.info("Refund processed for ticket {}: refundId={}", ticketId, refundId);
+                    ticket.setRefundStatus(RefundStatus.REFUNDED);
+                    ticket.setRefundId(refundId);
                     refundMessage = " Refund of ₹" + ticket.getAmount()
                             + " has been initiated and will be processed within 5-7 business days.";
                 } catch (Exception e) {
-                    logger.error("Refund failed for ticket {}: {}", ticketId, e.getMessage());
-                    refundMessage = " Refund processing failed. Please contact support.";
+                    logger.error("Refund failed for ticket {}, queued for retry: {}", ticketId, e.getMessage());
+                    refundQueue.enqueue(ticket, ticket.getAmount() * 100, e.getMessage());
+                    refundMessage = " Refund of ₹" + ticket.getAmount()
+                            + " could not be processed right now and will be retried automatically.";
                 }
             }
 
@@ -205,6 +473,13 @@ public class TicketServiceImplementation implements TicketService {
             // trainClient.increaseSeats(ticket.getTrainId(), ticket.getNoOfSeats());
             ticket.setStatus(TicketStatus.CANCELLED);
             ticketRepository.save(ticket);
+            ticketStats.record(before, ticket);
+            if (wasWaiting) {
+                waitlist.remove(ticket.getTicket_id());
+            } else {
+                seatInventory.release(ticket.getTrainId(), ticket.getBookingDate(), ticket.getNoOfSeats());
+                promoteWaitlisted(ticket.getTrainId(), ticket.getBookingDate(), ticket.getNoOfSeats());
+            }
             logger.info("Ticket cancelled: {}", ticketId);
 
             return "Ticket with ticket number " + ticket.getTicketNumber() + " has been cancelled." + refundMessage;
@@ -214,8 +489,9 @@ public class TicketServiceImplementation implements TicketService {
     }
 
     @Override
+    @Transactional
     public CancellationResponseDTO cancelTicketWithRefund(Long ticketId) {
-        Optional<TicketBooking> otp = ticketRepository.findById(ticketId);
+        Optional<TicketBooking> otp = stageTimers.time(CANCEL, "load", () -> ticketRepository.findById(ticketId));
         if (!otp.isPresent()) {
             logger.warn("Ticket not found for cancellation: {}", ticketId);
             throw new TicketException("Ticket not found");
@@ -228,10 +504,10 @@ public class TicketServiceImplementation implements TicketService {
             return new CancellationResponseDTO("Ticket " + ticket.getTicketNumber() + " already cancelled!");
         }
 
-        if (ticket.getStatus() == TicketStatus.WAITING) {
-            logger.warn("Ticket is pending confirmation: {}", ticketId);
-            return new CancellationResponseDTO("Ticket " + ticket.getTicketNumber() + " is pending, Please confirm it");
-        }
+        // A waitlisted ticket never held a seat, so it is refunded in full
+        boolean wasWaiting = ticket.getStatus() == TicketStatus.WAITING;
+        double cancellationFeeRate = wasWaiting ? 0.0 : 0.20;
+        TicketStats.Snapshot before = ticketStats.snapshot(ticket);
 
         // Process refund if payment ID exists
         boolean refundProcessed = false;
@@ -242,13 +518,12 @@ public class TicketServiceImplementation implements TicketService {
 
         if (ticket.getPaymentId() != null && !ticket.getPaymentId().isEmpty()) {
             try {
-                // Calculate refund amount with 20% cancellation fee (user gets 80%)
-                double cancellationFeeRate = 0.20; // 20% cancellation fee
-                double refundRate = 0.80; // 80% refund to user
+                // Calculate refund amount with the cancellation fee (20% for confirmed tickets)
+                double refundRate = 1.0 - cancellationFeeRate;
 
                 double originalAmount = ticket.getAmount();
-                refundAmount = originalAmount * refundRate; // 80% of original amount
-                double cancellationFee = originalAmount * cancellationFeeRate; // 20% kept as fee
+                refundAmount = originalAmount * refundRate;
+                double cancellationFee = originalAmount * cancellationFeeRate;
 
                 // Convert to paise for Razorpay (multiply by 100)
                 int refundAmountPaise = (int) (refundAmount * 100);
@@ -257,34 +532,52 @@ public class TicketServiceImplementation implements TicketService {
                         ticketId, originalAmount, refundAmount, cancellationFee);
 
                 // Call payment service to process refund
-                refundId = paymentClient.refundPayment(ticket.getPaymentId(), refundAmountPaise);
+                refundId = stageTimers.time(CANCEL, "refund",
+                        () -> paymentClient.refundPayment(ticket.getPaymentId(), refundAmountPaise));
                 logger.info("Refund processed for ticket {}: refundId={}, amount=₹{}", ticketId, refundId,
                         refundAmount);
 
                 refundProcessed = true;
                 refundStatus = "INITIATED";
                 expectedRefundTime = "5-7 business days";
+                ticket.setRefundStatus(RefundStatus.REFUNDED);
+                ticket.setRefundId(refundId);
             } catch (Exception e) {
-                logger.error("Refund failed for ticket {}: {}", ticketId, e.getMessage());
-                refundStatus = "FAILED";
-                expectedRefundTime = "Please contact support";
+                // The cancellation still goes through; RefundQueue keeps retrying in the background
+                logger.error("Refund failed for ticket {}, queued for retry: {}", ticketId, e.getMessage());
+                refundQueue.enqueue(ticket, (int) (refundAmount * 100), e.getMessage());
+                refundStatus = "QUEUED";
+                expectedRefundTime = "Retrying automatically; 5-7 business days once processed";
             }
         }
 
-        // Update ticket status and increase train seats
-        trainClient.increaseSeats(ticket.getTrainId(), ticket.getNoOfSeats());
+        // Update ticket status; freed seats go back to the inventory and the waitlist takes what fits
         ticket.setStatus(TicketStatus.CANCELLED);
-        ticketRepository.save(ticket);
+        if (ticket.getPaymentId() != null && !ticket.getPaymentId().isEmpty() && cancellationFeeRate > 0) {
+            ticket.setCancellationFee(ticket.getAmount() * cancellationFeeRate);
+        }
+        stageTimers.time(CANCEL, "save", () -> ticketRepository.save(ticket));
+        ticketStats.record(before, ticket);
+        if (wasWaiting) {
+            waitlist.remove(ticket.getTicket_id());
+        } else {
+            seatInventory.release(ticket.getTrainId(), ticket.getBookingDate(), ticket.getNoOfSeats());
+            // train-service's totalSeats is the train's capacity, so nothing is handed back there
+            stageTimers.time(CANCEL, "promote_waitlist",
+                    () -> promoteWaitlisted(ticket.getTrainId(), ticket.getBookingDate(), ticket.getNoOfSeats()));
+        }
         logger.info("Ticket cancelled: {}", ticketId);
 
         // Calculate cancellation fee for response
         double originalAmount = ticket.getAmount();
-        double cancellationFee = refundProcessed ? originalAmount * 0.20 : 0.0;
+        double cancellationFee = refundProcessed ? originalAmount * cancellationFeeRate : 0.0;
 
         String message = String.format("Ticket %s cancelled successfully. %s",
                 ticket.getTicketNumber(),
-                refundProcessed ? String.format("Refund: ₹%.2f (after 20%% cancellation fee)", refundAmount)
-                        : "No refund applicable.");
+                "QUEUED".equals(refundStatus) ? String.format("Refund of ₹%.2f queued and will be retried automatically.", refundAmount)
+                        : !refundProcessed ? "No refund applicable."
+                        : wasWaiting ? String.format("Refund: ₹%.2f (full refund for waitlisted ticket)", refundAmount)
+                        : String.format("Refund: ₹%.2f (after 20%% cancellation fee)", refundAmount));
 
         return new CancellationResponseDTO(
                 message,
@@ -297,7 +590,62 @@ public class TicketServiceImplementation implements TicketService {
                 expectedRefundTime);
     }
 
+    // Confirms waitlisted tickets that fit into seats freed by a cancellation and returns the seats they took
+    private int promoteWaitlisted(Long trainId, LocalDate date, int freedSeats) {
+        List<Long> ids = waitlist.promote(trainId, date, freedSeats);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // A ticket cancelled or changed since it was queued no longer takes a seat
+        List<TicketBooking> promoted = ticketRepository.findAllById(ids).stream()
+                .filter(ticket -> ticket.getStatus() == TicketStatus.WAITING)
+                .toList();
+        if (promoted.size() < ids.size()) {
+            logger.warn("Skipped {} waitlist entries on train {} for {} that were no longer waiting",
+                    ids.size() - promoted.size(), trainId, date);
+        }
+        int seats = 0;
+        for (TicketBooking waiting : promoted) {
+            TicketStats.Snapshot before = ticketStats.snapshot(waiting);
+            waiting.setStatus(TicketStatus.CONFIRMED);
+            ticketStats.record(before, waiting);
+            ticketEventBus.publishAfterCommit(toBookedEvent(waiting));
+            seats += waiting.getNoOfSeats();
+            if (ticketEventBus.sendsConfirmations()) {
+                continue;
+            }
+            mailOutbox.enqueue(waiting.getEmail(),
+                    "Ticket Confirmed: " + waiting.getTicketNumber(),
+                    "Dear " + waiting.getFullName() + ",\n\n" +
+                            "Good news! Your waitlisted ticket is now confirmed.\n" +
+                            "Train: " + waiting.getTrainName() + "\n" +
+                            "Date: " + waiting.getBookingDate() + "\n" +
+                            "Seats: " + waiting.getNoOfSeats() + "\n" +
+                            "Ticket Number: " + waiting.getTicketNumber() + "\n\n" +
+                            "Thank you for booking with us.");
+        }
+        ticketRepository.saveAll(promoted);
+        seatInventory.reserve(trainId, date, seats);
+        logger.info("Promoted {} waitlisted tickets on train {} for {}", promoted.size(), trainId, date);
+        return seats;
+    }
+
+    // Claims the user's seat hold for a booking; a mismatch rolls back, which puts the hold back for the user
+    private void claimHold(String holdId, String userEmail, Long trainId, LocalDate date, Integer seats,
+                           String orderId) {
+        SeatHoldRegistry.Hold hold = seatHoldRegistry.claim(holdId, userEmail);
+        if (hold == null) {
+            logger.warn("Seat hold {} not found or expired for orderId: {}", holdId, orderId);
+            throw new TicketException("Seat hold not found or expired");
+        }
+        if (!hold.getTrainId().equals(trainId) || !hold.getDate().equals(date)
+                || !Integer.valueOf(hold.getSeats()).equals(seats)) {
+            throw new TicketException("Booking does not match the seat hold");
+        }
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public TicketBooking getTicketDetails(Long ticket_id) {
         Optional<TicketBooking> otp = ticketRepository.findById(ticket_id);
         if (otp.isPresent()) {
@@ -309,15 +657,41 @@ public class TicketServiceImplementation implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketBooking> getAllTickets() {
         logger.info("Fetching all tickets");
         return ticketRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketBooking> getTicketsPage(Long after, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether another page follows
+        List<TicketBooking> rows = ticketRepository.findPageAfter(after != null ? after : 0L, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<TicketBooking> items = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getTicket_id() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    // Streams every ticket through the action, detaching each one so the persistence context stays empty
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTicket(Consumer<TicketBooking> action) {
+        try (Stream<TicketBooking> tickets = ticketRepository.streamAll()) {
+            tickets.forEach(ticket -> {
+                action.accept(ticket);
+                entityManager.detach(ticket);
+            });
+        }
+    }
+
     // 9. Get ticket by order ID
     // This method retrieves a ticket based on the order ID, which is unique for
     // each booking
     @Override
+    @Transactional(readOnly = true)
     public TicketBooking getTicketByOrderId(String orderId) {
         Optional<TicketBooking> otp = ticketRepository.findByOrderId(orderId);
         if (otp.isPresent()) {
@@ -328,10 +702,25 @@ public class TicketServiceImplementation implements TicketService {
         throw new TicketException("Ticket with order id " + orderId + " not present!");
     }
 
+    // PNR lookup, served by the unique index on ticket_number
+    @Override
+    @Transactional(readOnly = true)
+    public TicketBooking getTicketByPnr(String ticketNumber) {
+        String pnr = ticketNumber.trim().toUpperCase();
+        // Live tickets first; the archive is only read for PNRs of past journeys
+        return ticketRepository.findByTicketNumber(pnr)
+                .or(() -> archivedTicketRepository.findFirstByTicketNumber(pnr).map(ArchivedTicket::toTicketBooking))
+                .orElseThrow(() -> {
+                    logger.warn("Ticket not found for PNR: {}", ticketNumber);
+                    return new TicketException("Ticket with PNR " + ticketNumber + " not present!");
+                });
+    }
+
     // 10. Get tickets by user email
     // This method retrieves all tickets booked by a user based on their email
     // address
     @Override
+    @Transactional(readOnly = true)
     public List<TicketBooking> getTicketByUserEmail(String userEmail) {
         List<TicketBooking> tickets = ticketRepository.findByUserEmail(userEmail);
         if (tickets.isEmpty()) {
@@ -342,14 +731,29 @@ public class TicketServiceImplementation implements TicketService {
         return tickets;
     }
 
+    // Live tickets followed by archived ones, newest journey first
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketBooking> getTicketHistoryByUserEmail(String userEmail) {
+        List<TicketBooking> tickets = new ArrayList<>(ticketRepository.findByUserEmail(userEmail));
+        for (ArchivedTicket archived : archivedTicketRepository.findByUserEmailOrderByBookingDateDesc(userEmail)) {
+            tickets.add(archived.toTicketBooking());
+        }
+        if (tickets.isEmpty()) {
+            logger.warn("No tickets found for user email: {}", userEmail);
+            throw new TicketException("No tickets found for user with email: " + userEmail);
+        }
+        logger.info("Fetched {} tickets including archive for user email: {}", tickets.size(), userEmail);
+        return tickets;
+    }
+
     // 11. Get booked seats count by train and date
-    // This method retrieves the count of booked seats for a specific train on a
-    // given date
+    // Served from the in-memory seat inventory, which is kept in sync by the
+    // booking and cancellation paths
     @Override
     public int getBookedSeatsCountByTrainAndDate(Long trainId, LocalDate date) {
-        logger.info("Fetching booked seats count for train {} on date {}", trainId, date);
-        Integer bookedSeats = ticketRepository.getBookedSeatsCountByTrainAndDate(trainId, date);
-        return bookedSeats != null ? bookedSeats : 0;
+        logger.debug("Fetching booked seats count for train {} on date {}", trainId, date);
+        return seatInventory.getBookedSeats(trainId, date);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.microservices.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    // 10 ms ticks on 8 buckets, so anything past 80 ms has to wait out whole rounds
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void startTimer() {
+        timer = new HashedWheelTimer("wheel-test", 10, TimeUnit.MILLISECONDS, 8);
+        timer.start();
+    }
+
+    @AfterEach
+    void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    void timeoutsExpireInDeadlineOrder() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int delay : new int[]{250, 40, 130, 90}) {
+            timer.schedule(() -> {
+                fired.add(delay);
+                done.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertIterableEquals(List.of(40, 90, 130, 250), fired);
+    }
+
+    @Test
+    void timeoutPastOneRevolutionDoesNotFireEarly() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] firedAfter = new long[1];
+        long scheduledAt = System.nanoTime();
+        timer.schedule(() -> {
+            firedAfter[0] = System.nanoTime() - scheduledAt;
+            done.countDown();
+        }, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfter[0] >= TimeUnit.MILLISECONDS.toNanos(200),
+                "fired after " + TimeUnit.NANOSECONDS.toMillis(firedAfter[0]) + " ms");
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        HashedWheelTimer.Timeout cancelled = timer.schedule(() -> fired.add("cancelled"), 30, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> {
+            fired.add("kept");
+            done.countDown();
+        }, 60, TimeUnit.MILLISECONDS);
+        cancelled.cancel();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertIterableEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        timer.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 20, TimeUnit.MILLISECONDS);
+        timer.schedule(done::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsNonPositiveTickOrWheelSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("bad", 0, TimeUnit.MILLISECONDS, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("bad", 10, TimeUnit.MILLISECONDS, 0));
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservices.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentOrdersTest {
+
+    private static List<String> orderIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("order_" + UUID.randomUUID());
+        }
+        return ids;
+    }
+
+    private static long countContained(RecentOrders orders, List<String> ids) {
+        return ids.stream().filter(orders::mightContain).count();
+    }
+
+    @Test
+    void addedOrdersAreAlwaysReported() {
+        RecentOrders orders = new RecentOrders(1 << 20, 1_000_000);
+        List<String> ids = orderIds(10_000);
+        ids.forEach(orders::add);
+
+        assertEquals(ids.size(), countContained(orders, ids));
+    }
+
+    @Test
+    void unknownOrdersAreRarelyReported() {
+        RecentOrders orders = new RecentOrders(1 << 20, 1_000_000);
+        orderIds(10_000).forEach(orders::add);
+
+        // About 100 bits per id and five hashes: the expected rate is far below 1%
+        long falsePositives = countContained(orders, orderIds(10_000));
+        assertTrue(falsePositives < 100, falsePositives + " false positives");
+    }
+
+    @Test
+    void ordersSurviveOneRotation() {
+        RecentOrders orders = new RecentOrders(1 << 16, 100);
+        List<String> first = orderIds(100);
+        first.forEach(orders::add);
+        List<String> second = orderIds(50);
+        second.forEach(orders::add);
+
+        assertEquals(first.size(), countContained(orders, first));
+        assertEquals(second.size(), countContained(orders, second));
+    }
+
+    @Test
+    void ordersAreForgottenAfterTwoRotations() {
+        RecentOrders orders = new RecentOrders(1 << 16, 100);
+        List<String> first = orderIds(100);
+        first.forEach(orders::add);
+        List<String> second = orderIds(100);
+        second.forEach(orders::add);
+
+        assertEquals(second.size(), countContained(orders, second));
+        long stillReported = countContained(orders, first);
+        assertTrue(stillReported < 5, stillReported + " of the oldest generation still reported");
+    }
+}
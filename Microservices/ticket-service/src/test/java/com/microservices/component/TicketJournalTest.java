@@ -0,0 +1,186 @@
+package com.microservices.component;
+
+import com.microservices.domain.RefundStatus;
+import com.microservices.domain.TicketStatus;
+import com.microservices.model.TicketBooking;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketJournalTest {
+
+    // Header (length + CRC) plus the fixed payload
+    private static final int RECORD = 8 + 51;
+
+    @TempDir
+    Path dir;
+
+    // Starts from an existing empty segment, so open() skips the database baseline
+    private TicketJournal journal(int segmentBytes) throws IOException {
+        Path first = dir.resolve("0000000000.journal");
+        if (Files.notExists(first)) {
+            Files.createFile(first);
+        }
+        TicketJournal journal = new TicketJournal(null, null, null);
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentBytes", segmentBytes);
+        journal.open();
+        return journal;
+    }
+
+    private static TicketBooking ticket(long id, TicketStatus status) {
+        TicketBooking ticket = new TicketBooking();
+        ticket.setTicket_id(id);
+        ticket.setTrainId(12951L);
+        ticket.setBookingDate(LocalDate.of(2026, 3, 14));
+        ticket.setNoOfSeats(2);
+        ticket.setAmount(1450);
+        ticket.setStatus(status);
+        return ticket;
+    }
+
+    private static List<TicketJournal.Entry> replay(TicketJournal journal) throws IOException {
+        List<TicketJournal.Entry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+        return entries;
+    }
+
+    private static List<Long> ticketIds(List<TicketJournal.Entry> entries) {
+        return entries.stream().map(TicketJournal.Entry::ticketId).toList();
+    }
+
+    @Test
+    void recordsRoundTripThroughTheSegment() throws IOException {
+        TicketJournal journal = journal(4096);
+        TicketBooking waiting = ticket(7, TicketStatus.WAITING);
+        waiting.setWaitlistedAt(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_456_000));
+        journal.record(null, waiting);
+
+        TicketBooking cancelled = ticket(7, TicketStatus.CANCELLED);
+        cancelled.setCancellationFee(290.0);
+        cancelled.setRefundStatus(RefundStatus.QUEUED);
+        journal.record(TicketStatus.WAITING, cancelled);
+
+        cancelled.setRefundStatus(RefundStatus.REFUNDED);
+        journal.recordRefund(cancelled);
+
+        List<TicketJournal.Entry> entries = replay(journal);
+        assertEquals(3, entries.size());
+
+        TicketJournal.Entry booked = entries.get(0);
+        assertEquals(TicketJournal.Type.BOOKED, booked.type());
+        assertEquals(7L, booked.ticketId());
+        assertEquals(12951L, booked.trainId());
+        assertEquals(LocalDate.of(2026, 3, 14), booked.date());
+        assertNull(booked.from());
+        assertEquals(TicketStatus.WAITING, booked.to());
+        assertNull(booked.refundStatus());
+        assertEquals(2, booked.seats());
+        assertEquals(1450, booked.amount());
+        assertEquals(0L, booked.feePaise());
+        assertEquals(waiting.getWaitlistedAt(), booked.waitlistedAt());
+
+        TicketJournal.Entry cancellation = entries.get(1);
+        assertEquals(TicketJournal.Type.CANCELLED, cancellation.type());
+        assertEquals(TicketStatus.WAITING, cancellation.from());
+        assertEquals(TicketStatus.CANCELLED, cancellation.to());
+        assertEquals(RefundStatus.QUEUED, cancellation.refundStatus());
+        assertEquals(29000L, cancellation.feePaise());
+        assertNull(cancellation.waitlistedAt());
+
+        TicketJournal.Entry refund = entries.get(2);
+        assertEquals(TicketJournal.Type.REFUND, refund.type());
+        assertEquals(RefundStatus.REFUNDED, refund.refundStatus());
+    }
+
+    @Test
+    void transitionsMapToRecordTypes() throws IOException {
+        TicketJournal journal = journal(4096);
+        journal.record(TicketStatus.WAITING, ticket(1, TicketStatus.CONFIRMED));
+        journal.record(TicketStatus.CONFIRMED, ticket(2, TicketStatus.CONFIRMED));
+        journal.record(TicketStatus.CANCELLED, ticket(3, TicketStatus.CANCELLED));
+
+        assertEquals(List.of(TicketJournal.Type.PROMOTED, TicketJournal.Type.UPDATED, TicketJournal.Type.UPDATED),
+                replay(journal).stream().map(TicketJournal.Entry::type).toList());
+    }
+
+    @Test
+    void appendsRollOverIntoNewSegmentsInOrder() throws IOException {
+        TicketJournal journal = journal(2 * RECORD);
+        for (long id = 1; id <= 5; id++) {
+            journal.record(null, ticket(id, TicketStatus.CONFIRMED));
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(3, files.count());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ticketIds(replay(journal)));
+        assertEquals(List.of(5L), ticketIds(journal.history(5)));
+    }
+
+    @Test
+    void tornTailRecordEndsTheReplayAndIsOverwrittenOnReopen() throws IOException {
+        TicketJournal journal = journal(4096);
+        for (long id = 1; id <= 3; id++) {
+            journal.record(null, ticket(id, TicketStatus.CONFIRMED));
+        }
+        journal.close();
+
+        // Flip one payload byte of the last record, as a torn write would leave it
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("0000000000.journal").toFile(), "rw")) {
+            long offset = 2 * RECORD + 8 + 20;
+            file.seek(offset);
+            int original = file.read();
+            file.seek(offset);
+            file.write(original ^ 0xff);
+        }
+        assertEquals(List.of(1L, 2L), ticketIds(replay(journal)));
+
+        TicketJournal reopened = journal(4096);
+        reopened.record(null, ticket(4, TicketStatus.CONFIRMED));
+        assertEquals(List.of(1L, 2L, 4L), ticketIds(replay(reopened)));
+    }
+
+    @Test
+    void badLengthAtTheTailIsIgnored() throws IOException {
+        TicketJournal journal = journal(4096);
+        journal.record(null, ticket(1, TicketStatus.CONFIRMED));
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("0000000000.journal").toFile(), "rw")) {
+            file.seek(RECORD);
+            file.writeInt(1 << 20);
+        }
+        assertEquals(List.of(1L), ticketIds(replay(journal)));
+
+        TicketJournal reopened = journal(4096);
+        reopened.record(null, ticket(2, TicketStatus.CONFIRMED));
+        assertEquals(List.of(1L, 2L), ticketIds(replay(reopened)));
+    }
+
+    @Test
+    void disabledJournalWritesNothing() throws IOException {
+        TicketJournal journal = new TicketJournal(null, null, null);
+        ReflectionTestUtils.setField(journal, "dir", dir.toString());
+        journal.open();
+        journal.record(null, ticket(1, TicketStatus.CONFIRMED));
+
+        assertEquals(0, journal.replay(entry -> fail("disabled journal replayed " + entry)));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Reads the span files the services write (one JSON object per line, see
+ * SpanFileExporterConfig) and joins them by trace id. Without --trace it
+ * lists the slowest traces; with --trace it prints one trace as a tree with
+ * each span's offset from the start of the trace and its duration.
+ *
+ * Run with Java 21: java TraceView.java [dir] [--slowest=10] [--trace=<traceId>]
+ */
+public class TraceView {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "railway-traces");
+        int slowest = 10;
+        String traceId = null;
+        for (String arg : args) {
+            if (arg.startsWith("--slowest=")) {
+                slowest = Integer.parseInt(arg.substring("--slowest=".length()));
+            } else if (arg.startsWith("--trace=")) {
+                traceId = arg.substring("--trace=".length());
+            } else {
+                dir = Paths.get(arg);
+            }
+        }
+
+        Map<String, List<Map<String, Object>>> traces = new HashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".ndjson")).toList()) {
+                for (String line : Files.readAllLines(file)) {
+                    if (!line.isBlank()) {
+                        Map<String, Object> span = new Json(line).object();
+                        traces.computeIfAbsent((String) span.get("traceId"), k -> new ArrayList<>()).add(span);
+                    }
+                }
+            }
+        }
+        if (traceId != null) {
+            List<Map<String, Object>> spans = traces.get(traceId);
+            if (spans == null) {
+                System.err.println("No spans for trace " + traceId + " in " + dir);
+                System.exit(1);
+            }
+            printTree(spans);
+        } else {
+            printSlowest(traces, slowest);
+        }
+    }
+
+    // A trace lasts from its first span's start to its last span's end, across all services
+    private static void printSlowest(Map<String, List<Map<String, Object>>> traces, int limit) {
+        System.out.printf("%-32s %10s %6s  %-40s %s%n", "traceId", "ms", "spans", "root", "services");
+        traces.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, List<Map<String, Object>>> e) -> -span(e.getValue())))
+                .limit(limit)
+                .forEach(e -> {
+                    Map<String, Object> root = e.getValue().stream()
+                            .min(Comparator.comparingLong(s -> num(s, "startMicros"))).orElseThrow();
+                    TreeSet<String> services = new TreeSet<>();
+                    e.getValue().forEach(s -> services.add(String.valueOf(s.get("service"))));
+                    System.out.printf("%-32s %10.1f %6d  %-40s %s%n", e.getKey(), span(e.getValue()) / 1000.0,
+                            e.getValue().size(), root.get("service") + " " + root.get("name"), services);
+                });
+    }
+
+    private static long span(List<Map<String, Object>> spans) {
+        long start = spans.stream().mapToLong(s -> num(s, "startMicros")).min().orElse(0);
+        long end = spans.stream().mapToLong(s -> num(s, "startMicros") + num(s, "durationMicros")).max().orElse(0);
+        return end - start;
+    }
+
+    private static void printTree(List<Map<String, Object>> spans) {
+        long start = spans.stream().mapToLong(s -> num(s, "startMicros")).min().orElse(0);
+        Map<String, Map<String, Object>> byId = new HashMap<>();
+        spans.forEach(s -> byId.put((String) s.get("spanId"), s));
+        Map<String, List<Map<String, Object>>> children = new HashMap<>();
+        List<Map<String, Object>> roots = new ArrayList<>();
+        for (Map<String, Object> s : spans) {
+            Object parent = s.get("parentSpanId");
+            // A parent that was not exported (not sampled, or its file is missing) makes the span a root
+            if (parent == null || !byId.containsKey(parent)) {
+                roots.add(s);
+            } else {
+                children.computeIfAbsent((String) parent, k -> new ArrayList<>()).add(s);
+            }
+        }
+        System.out.printf("%10s %10s  %s%n", "+ms", "ms", "span");
+        roots.sort(Comparator.comparingLong(s -> num(s, "startMicros")));
+        for (Map<String, Object> root : roots) {
+            print(root, children, start, 0);
+        }
+    }
+
+    private static void print(Map<String, Object> s, Map<String, List<Map<String, Object>>> children, long start, int depth) {
+        StringBuilder detail = new StringBuilder();
+        if (s.get("attributes") instanceof Map<?, ?> attributes) {
+            attributes.forEach((key, value) -> {
+                String name = String.valueOf(key);
+                if (name.startsWith("http.") || name.startsWith("jdbc.query") || name.startsWith("messaging.")
+                        || name.equals("uri") || name.equals("method") || name.equals("status")) {
+                    detail.append(' ').append(name).append('=').append(value);
+                }
+            });
+        }
+        System.out.printf("%10.1f %10.1f  %s[%s] %s%s%s%n",
+                (num(s, "startMicros") - start) / 1000.0, num(s, "durationMicros") / 1000.0,
+                "  ".repeat(depth), s.get("service"), s.get("name"),
+                "ERROR".equals(s.get("status")) ? " ERROR" : "", detail);
+        List<Map<String, Object>> kids = children.getOrDefault((String) s.get("spanId"), new ArrayList<>());
+        kids.sort(Comparator.comparingLong(c -> num(c, "startMicros")));
+        for (Map<String, Object> child : kids) {
+            print(child, children, start, depth + 1);
+        }
+    }
+
+    private static long num(Map<String, Object> span, String key) {
+        Object value = span.get(key);
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+
+    // Just enough JSON for the exporter's output: objects, arrays, strings, numbers, booleans, null
+    private static final class Json {
+        private final String text;
+        private int pos;
+
+        Json(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            do {
+                String key = string();
+                expect(':');
+                map.put(key, value());
+            } while (next(',', '}') == ',');
+            return map;
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '{') {
+                return object();
+            }
+            if (c == '[') {
+                List<Object> list = new ArrayList<>();
+                pos++;
+                if (peek() == ']') {
+                    pos++;
+                    return list;
+                }
+                do {
+                    list.add(value());
+                } while (next(',', ']') == ',');
+                return list;
+            }
+            if (c == '"') {
+                return string();
+            }
+            int begin = pos;
+            while (pos < text.length() && ",}] ".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(begin, pos);
+            return switch (literal) {
+                case "null" -> null;
+                case "true" -> Boolean.TRUE;
+                case "false" -> Boolean.FALSE;
+                default -> literal.contains(".") || literal.contains("e") || literal.contains("E")
+                        ? (Object) Double.parseDouble(literal) : (Object) Long.parseLong(literal);
+            };
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> out.append('\n');
+                    case 't' -> out.append('\t');
+                    case 'r' -> out.append('\r');
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'u' -> {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> out.append(escaped);
+                }
+            }
+        }
+
+        private char peek() {
+            while (Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return text.charAt(pos);
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos + " in " + text);
+            }
+            pos++;
+        }
+
+        private char next(char a, char b) {
+            char c = peek();
+            if (c != a && c != b) {
+                throw new IllegalArgumentException("Expected '" + a + "' or '" + b + "' at " + pos + " in " + text);
+            }
+            pos++;
+            return c;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.microservices.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered stops of a train. Leg i runs from stop i to stop i + 1, and a
+ * journey [from, to) is the bit mask of the legs it rides, so up to 64 legs
+ * fit in one long.
+ */
+public final class RouteStops {
+
+    public static final int MAX_LEGS = 64;
+
+    private final String[] stations;
+
+    private RouteStops(List<String> stations) {
+        this.stations = stations.toArray(new String[0]);
+    }
+
+    // Builds a train's stops; the route may have at most MAX_LEGS legs
+    public static RouteStops of(String source, List<String> routes, String destination) {
+        List<String> stops = stations(source, routes, destination);
+        if (stops.size() - 1 > MAX_LEGS) {
+            throw new IllegalArgumentException("Route has more than " + MAX_LEGS + " legs");
+        }
+        return new RouteStops(stops);
+    }
+
+    // Stop list from the terminals and the route, adding the terminals if the route omits them
+    public static List<String> stations(String source, List<String> routes, String destination) {
+        List<String> stops = new ArrayList<>();
+        if (routes != null) {
+            for (String stop : routes) {
+                if (stop != null && !stop.isBlank()) {
+                    stops.add(stop.trim());
+                }
+            }
+        }
+        if (stops.isEmpty() || !stops.get(0).equalsIgnoreCase(source)) {
+            stops.add(0, source);
+        }
+        if (!stops.get(stops.size() - 1).equalsIgnoreCase(destination)) {
+            stops.add(destination);
+        }
+        return stops;
+    }
+
+    public int stopCount() {
+        return stations.length;
+    }
+
+    public int legCount() {
+        return stations.length - 1;
+    }
+
+    public String station(int index) {
+        return stations[index];
+    }
+
+    // Position of a station on the route, or -1 if the train does not stop there
+    public int indexOf(String station) {
+        if (station == null) {
+            return -1;
+        }
+        for (int i = 0; i < stations.length; i++) {
+            if (stations[i].equalsIgnoreCase(station.trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Leg mask of a journey boarding at stop from and leaving at stop to
+    public static long segment(int from, int to) {
+        long upTo = to >= MAX_LEGS ? -1L : (1L << to) - 1;
+        return upTo & (-1L << from);
+    }
+
+    // Leg mask between two named stops, null meaning the terminal; 0 if the journey is not on this route
+    public long segment(String from, String to) {
+        int fromIdx = from == null || from.isBlank() ? 0 : indexOf(from);
+        int toIdx = to == null || to.isBlank() ? legCount() : indexOf(to);
+        if (fromIdx < 0 || toIdx < 0 || fromIdx >= toIdx) {
+            return 0;
+        }
+        return segment(fromIdx, toIdx);
+    }
+
+    public long fullRoute() {
+        return segment(0, legCount());
+    }
+}
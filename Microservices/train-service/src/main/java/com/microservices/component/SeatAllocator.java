@@ -0,0 +1,99 @@
+package com.microservices.component;
+
+import com.microservices.model.SeatBooking;
+import com.microservices.model.TrainDetails;
+import com.microservices.repository.SeatBookingRepository;
+import com.microservices.repository.TrainRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link SeatMap} per (train, date). Maps are built lazily from the
+ * train's class layout and the persisted seat bookings, then served from memory.
+ * A map is always loaded from the primary, in a transaction of its own, so a
+ * lagging replica cannot leave sold seats free in memory.
+ */
+@Component
+public class SeatAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatAllocator.class);
+
+    private final TrainRepository trainRepository;
+    private final SeatBookingRepository seatBookingRepository;
+    private final ReplicaRouter replicaRouter;
+    private final TransactionTemplate loadTransaction;
+    private final ConcurrentHashMap<Long, SeatMap> seatMaps = new ConcurrentHashMap<>();
+
+    public SeatAllocator(TrainRepository trainRepository, SeatBookingRepository seatBookingRepository,
+                         ReplicaRouter replicaRouter, PlatformTransactionManager transactionManager) {
+        this.trainRepository = trainRepository;
+        this.seatBookingRepository = seatBookingRepository;
+        this.replicaRouter = replicaRouter;
+        // A new transaction gets its own connection; the caller's may already be on a replica
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    // Seat map for a train on a date, or null if the train has no seat layout
+    public SeatMap getSeatMap(Long trainId, LocalDate date) {
+        long key = key(trainId, date);
+        SeatMap seatMap = seatMaps.get(key);
+        if (seatMap != null) {
+            return seatMap;
+        }
+        SeatMap loaded = replicaRouter.onPrimary(() -> loadTransaction.execute(status -> load(trainId, date)));
+        if (loaded == null) {
+            return null;
+        }
+        SeatMap existing = seatMaps.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Seat map only if it is already in memory; never triggers a load
+    public SeatMap getLoadedSeatMap(Long trainId, LocalDate date) {
+        return seatMaps.get(key(trainId, date));
+    }
+
+    // Drops every cached date of a train, e.g. after its layout changed
+    public void evict(Long trainId) {
+        seatMaps.keySet().removeIf(key -> (key >>> 20) == trainId);
+    }
+
+    private SeatMap load(Long trainId, LocalDate date) {
+        TrainDetails train = trainRepository.findById(trainId).orElse(null);
+        if (train == null || train.getSeatClasses() == null || train.getSeatClasses().isEmpty()) {
+            return null;
+        }
+        RouteStops stops = RouteStops.of(train.getSource(), train.getRoutes(), train.getDestination());
+        SeatMap seatMap = new SeatMap(SeatLayout.of(train.getSeatClasses()), stops);
+        List<SeatBooking> bookings = seatBookingRepository.findByTrainIdAndTravelDate(trainId, date);
+        int[] seat = new int[1];
+        for (SeatBooking booking : bookings) {
+            seat[0] = booking.getSeatNumber();
+            long segment = stops.segment(booking.getFromStation(), booking.getToStation());
+            // A leg whose stops left the route since booking blocks the whole route to stay safe
+            if (segment == 0) {
+                segment = stops.fullRoute();
+            }
+            if (!seatMap.occupy(seat, segment)) {
+                logger.warn("Seat {} of train {} on {} is outside the layout or double booked",
+                        booking.getSeatNumber(), trainId, date);
+            }
+        }
+        logger.info("Loaded seat map for train {} on {} with {} booked seats", trainId, date, bookings.size());
+        return seatMap;
+    }
+
+    private static long key(Long trainId, LocalDate date) {
+        return (trainId << 20) | date.toEpochDay();
+    }
+}
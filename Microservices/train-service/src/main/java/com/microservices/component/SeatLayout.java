@@ -0,0 +1,146 @@
+package com.microservices.component;
+
+import com.microservices.model.SeatClassConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable coach/seat numbering of a train.
+ * Classes are laid out back to back: seat numbers start at 1 and each class
+ * owns the range [classStart, classStart + coachCount * seatsPerCoach).
+ * Coaches are numbered globally from 0 in the same order.
+ */
+public final class SeatLayout {
+
+    private final String[] classNames;
+    private final BigDecimal[] prices;
+    private final int[] classStart;
+    private final int[] firstCoach;
+    private final int[] coachCount;
+    private final int[] seatsPerCoach;
+    private final int[] coachClass;
+    private final int totalSeats;
+
+    private SeatLayout(List<SeatClassConfig> classes) {
+        int n = classes.size();
+        classNames = new String[n];
+        prices = new BigDecimal[n];
+        classStart = new int[n];
+        firstCoach = new int[n];
+        coachCount = new int[n];
+        seatsPerCoach = new int[n];
+        int seat = 1;
+        int coach = 0;
+        for (int i = 0; i < n; i++) {
+            SeatClassConfig config = classes.get(i);
+            classNames[i] = config.getSeatClass();
+            prices[i] = config.getPrice();
+            classStart[i] = seat;
+            firstCoach[i] = coach;
+            coachCount[i] = config.getCoachCount();
+            seatsPerCoach[i] = config.getSeatsPerCoach();
+            seat += coachCount[i] * seatsPerCoach[i];
+            coach += coachCount[i];
+        }
+        totalSeats = seat - 1;
+        coachClass = new int[coach];
+        for (int i = 0; i < n; i++) {
+            for (int c = 0; c < coachCount[i]; c++) {
+                coachClass[firstCoach[i] + c] = i;
+            }
+        }
+    }
+
+    public static SeatLayout of(List<SeatClassConfig> classes) {
+        if (classes == null || classes.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat class is required");
+        }
+        for (SeatClassConfig config : classes) {
+            if (config.getSeatClass() == null || config.getSeatClass().isBlank()
+                    || config.getCoachCount() == null || config.getCoachCount() < 1
+                    || config.getSeatsPerCoach() == null || config.getSeatsPerCoach() < 1) {
+                throw new IllegalArgumentException("Invalid seat class configuration: " + config);
+            }
+        }
+        return new SeatLayout(classes);
+    }
+
+    public int classCount() {
+        return classNames.length;
+    }
+
+    // Index of a class by name, or -1 if the train has no such class
+    public int classIndex(String seatClass) {
+        for (int i = 0; i < classNames.length; i++) {
+            if (classNames[i].equalsIgnoreCase(seatClass)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String className(int classIdx) {
+        return classNames[classIdx];
+    }
+
+    public BigDecimal price(int classIdx) {
+        return prices[classIdx];
+    }
+
+    public int classStart(int classIdx) {
+        return classStart[classIdx];
+    }
+
+    public int classEnd(int classIdx) {
+        return classStart[classIdx] + coachCount[classIdx] * seatsPerCoach[classIdx] - 1;
+    }
+
+    public int classSeats(int classIdx) {
+        return coachCount[classIdx] * seatsPerCoach[classIdx];
+    }
+
+    public int firstCoach(int classIdx) {
+        return firstCoach[classIdx];
+    }
+
+    public int coachCount(int classIdx) {
+        return coachCount[classIdx];
+    }
+
+    public int totalCoaches() {
+        return coachClass.length;
+    }
+
+    public int coachClass(int coach) {
+        return coachClass[coach];
+    }
+
+    public int seatsInCoach(int coach) {
+        return seatsPerCoach[coachClass[coach]];
+    }
+
+    public int totalSeats() {
+        return totalSeats;
+    }
+
+    public int seatNumber(int coach, int offset) {
+        int cls = coachClass[coach];
+        return classStart[cls] + (coach - firstCoach[cls]) * seatsPerCoach[cls] + offset;
+    }
+
+    // Global coach of a seat number, or -1 if the seat is outside the layout
+    public int coachOf(int seatNumber) {
+        for (int i = 0; i < classStart.length; i++) {
+            if (seatNumber >= classStart[i] && seatNumber <= classEnd(i)) {
+                return firstCoach[i] + (seatNumber - classStart[i]) / seatsPerCoach[i];
+            }
+        }
+        return -1;
+    }
+
+    public int offsetOf(int seatNumber) {
+        int cls = coachClass[coachOf(seatNumber)];
+        return (seatNumber - classStart[cls]) % seatsPerCoach[cls];
+    }
+}
@@ -0,0 +1,226 @@
+package com.microservices.component;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Seat occupancy of one train on one date. Every seat carries a long mask of
+ * the route legs it is sold for (bit i = stop i to stop i + 1), so a seat sold
+ * A to B can be sold again B to Z. A seat is free for a journey when its mask
+ * and the journey's leg mask do not intersect.
+ * Writers take the write lock; readers use an optimistic stamp so availability
+ * and seat-map reads neither block nor allocate.
+ */
+public final class SeatMap {
+
+    private final SeatLayout layout;
+    private final RouteStops stops;
+    private final long[][] legs;
+    private final StampedLock lock = new StampedLock();
+
+    public SeatMap(SeatLayout layout, RouteStops stops) {
+        this.layout = layout;
+        this.stops = stops;
+        this.legs = new long[layout.totalCoaches()][];
+        for (int coach = 0; coach < legs.length; coach++) {
+            legs[coach] = new long[layout.seatsInCoach(coach)];
+        }
+    }
+
+    public SeatLayout getLayout() {
+        return layout;
+    }
+
+    public RouteStops getStops() {
+        return stops;
+    }
+
+    // Seats of a class free for the whole journey segment
+    public int available(int classIdx, long segment) {
+        long stamp = lock.tryOptimisticRead();
+        int free = countFree(classIdx, segment);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                free = countFree(classIdx, segment);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return free;
+    }
+
+    public int availableTotal(long segment) {
+        int total = 0;
+        for (int cls = 0; cls < layout.classCount(); cls++) {
+            total += available(cls, segment);
+        }
+        return total;
+    }
+
+    /**
+     * Writes the seat numbers of a class that are free for the segment into
+     * {@code out} in ascending order and returns how many were written.
+     * {@code out} must hold at least the class size.
+     */
+    public int copyFreeSeats(int classIdx, long segment, int[] out) {
+        long stamp = lock.tryOptimisticRead();
+        int count = scanFree(classIdx, segment, out);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = scanFree(classIdx, segment, out);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    private int countFree(int classIdx, long segment) {
+        int count = 0;
+        int first = layout.firstCoach(classIdx);
+        for (int coach = first; coach < first + layout.coachCount(classIdx); coach++) {
+            long[] seats = legs[coach];
+            for (int offset = 0; offset < seats.length; offset++) {
+                if ((seats[offset] & segment) == 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int scanFree(int classIdx, long segment, int[] out) {
+        int count = 0;
+        int first = layout.firstCoach(classIdx);
+        for (int coach = first; coach < first + layout.coachCount(classIdx); coach++) {
+            long[] seats = legs[coach];
+            for (int offset = 0; offset < seats.length; offset++) {
+                if ((seats[offset] & segment) == 0) {
+                    out[count++] = layout.seatNumber(coach, offset);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Allocates {@code count} seats of a class for a journey segment.
+     * A single passenger gets the free seat whose other legs are already most
+     * sold, so untouched seats stay available for long journeys. A group gets
+     * the smallest run of adjacent free seats in one coach that fits it (best
+     * fit); if no coach has such a run the group is split over the lowest free
+     * seats. Returns the allocated seat numbers, or null if the class is short.
+     */
+    public int[] allocate(int classIdx, int count, long segment) {
+        long stamp = lock.writeLock();
+        try {
+            if (count < 1 || countFree(classIdx, segment) < count) {
+                return null;
+            }
+            int first = layout.firstCoach(classIdx);
+            int last = first + layout.coachCount(classIdx);
+            int bestCoach = -1;
+            int bestStart = -1;
+            if (count == 1) {
+                int bestUsed = -1;
+                for (int coach = first; coach < last && bestUsed < stops.legCount(); coach++) {
+                    long[] seats = legs[coach];
+                    for (int offset = 0; offset < seats.length; offset++) {
+                        if ((seats[offset] & segment) == 0 && Long.bitCount(seats[offset]) > bestUsed) {
+                            bestUsed = Long.bitCount(seats[offset]);
+                            bestCoach = coach;
+                            bestStart = offset;
+                        }
+                    }
+                }
+            } else {
+                int bestLength = Integer.MAX_VALUE;
+                search:
+                for (int coach = first; coach < last; coach++) {
+                    long[] seats = legs[coach];
+                    int offset = 0;
+                    while (offset < seats.length) {
+                        if ((seats[offset] & segment) != 0) {
+                            offset++;
+                            continue;
+                        }
+                        int start = offset;
+                        while (offset < seats.length && (seats[offset] & segment) == 0) {
+                            offset++;
+                        }
+                        int length = offset - start;
+                        if (length >= count && length < bestLength) {
+                            bestCoach = coach;
+                            bestStart = start;
+                            bestLength = length;
+                            if (length == count) {
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+
+            int[] seatNumbers = new int[count];
+            if (bestCoach >= 0) {
+                for (int i = 0; i < count; i++) {
+                    legs[bestCoach][bestStart + i] |= segment;
+                    seatNumbers[i] = layout.seatNumber(bestCoach, bestStart + i);
+                }
+            } else {
+                int taken = 0;
+                for (int coach = first; taken < count; coach++) {
+                    long[] seats = legs[coach];
+                    for (int offset = 0; offset < seats.length && taken < count; offset++) {
+                        if ((seats[offset] & segment) == 0) {
+                            seats[offset] |= segment;
+                            seatNumbers[taken++] = layout.seatNumber(coach, offset);
+                        }
+                    }
+                }
+            }
+            return seatNumbers;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Marks exactly these seats as sold for the segment, all or nothing
+    public boolean occupy(int[] seatNumbers, long segment) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < seatNumbers.length; i++) {
+                int coach = layout.coachOf(seatNumbers[i]);
+                if (coach < 0 || (legs[coach][layout.offsetOf(seatNumbers[i])] & segment) != 0) {
+                    return false;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (seatNumbers[i] == seatNumbers[j]) {
+                        return false;
+                    }
+                }
+            }
+            for (int seatNumber : seatNumbers) {
+                legs[layout.coachOf(seatNumber)][layout.offsetOf(seatNumber)] |= segment;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void release(int[] seatNumbers, long segment) {
+        long stamp = lock.writeLock();
+        try {
+            for (int seatNumber : seatNumbers) {
+                int coach = layout.coachOf(seatNumber);
+                if (coach >= 0) {
+                    legs[coach][layout.offsetOf(seatNumber)] &= ~segment;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
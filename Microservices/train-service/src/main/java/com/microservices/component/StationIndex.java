@@ -0,0 +1,200 @@
+package com.microservices.component;
+
+import com.microservices.model.TrainDetails;
+import com.microservices.repository.TrainRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from station name to the trains that stop there, so a
+ * "from X to Y" search matches intermediate stops without touching the
+ * train_routes table. Each station maps to a sorted array of postings,
+ * (trainId << 16) | stop position, and a search merges the two stations'
+ * arrays. Arrays are replaced, never modified, so searches need no lock.
+ * Built from the database at startup and kept current on train add,
+ * update and delete, after the change commits. Only the instance that
+ * handled a change updates its index; other instances see it after their
+ * next restart, so a new or re-routed train can be missing from their
+ * searches until then.
+ */
+@Component
+@RequiredArgsConstructor
+public class StationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationIndex.class);
+    private static final int POSITION_BITS = 16;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+    private static final long[] NONE = new long[0];
+
+    private final TrainRepository trainRepository;
+    private final ReplicaRouter replicaRouter;
+    private final ConcurrentHashMap<String, long[]> postings = new ConcurrentHashMap<>();
+    // Stations each train is indexed under, so an update or delete can take it out again
+    private final Map<Long, Set<String>> stationsByTrain = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        // Rows come grouped by train, stops in route order
+        Map<Long, String[]> terminals = new HashMap<>();
+        Map<Long, List<String>> routes = new HashMap<>();
+        for (Object[] row : replicaRouter.onPrimary(trainRepository::findAllRouteStops)) {
+            Long trainId = (Long) row[0];
+            terminals.putIfAbsent(trainId, new String[]{(String) row[1], (String) row[2]});
+            List<String> route = routes.computeIfAbsent(trainId, k -> new ArrayList<>());
+            if (row[3] != null) {
+                route.add((String) row[3]);
+            }
+        }
+        Map<String, List<Long>> built = new HashMap<>();
+        Map<Long, Set<String>> byTrain = new HashMap<>();
+        for (Map.Entry<Long, String[]> train : terminals.entrySet()) {
+            long trainId = train.getKey();
+            List<String> stops = RouteStops.stations(train.getValue()[0], routes.get(trainId), train.getValue()[1]);
+            Set<String> stations = new LinkedHashSet<>();
+            for (int i = 0; i < stops.size(); i++) {
+                String station = normalize(stops.get(i));
+                built.computeIfAbsent(station, k -> new ArrayList<>()).add(posting(trainId, i));
+                stations.add(station);
+            }
+            byTrain.put(trainId, stations);
+        }
+        synchronized (this) {
+            postings.clear();
+            built.forEach((station, list) -> postings.put(station,
+                    list.stream().mapToLong(Long::longValue).sorted().toArray()));
+            stationsByTrain.clear();
+            stationsByTrain.putAll(byTrain);
+        }
+        logger.info("Station index built with {} stations over {} trains in {} ms",
+                postings.size(), byTrain.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Ids of the trains that stop at from and later at to, in id order
+    public List<Long> trainsBetween(String from, String to) {
+        if (from == null || to == null || from.isBlank() || to.isBlank()) {
+            return List.of();
+        }
+        long[] boarding = postings.getOrDefault(normalize(from), NONE);
+        long[] leaving = postings.getOrDefault(normalize(to), NONE);
+        List<Long> trains = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < boarding.length && j < leaving.length) {
+            long boardingTrain = boarding[i] >>> POSITION_BITS;
+            long leavingTrain = leaving[j] >>> POSITION_BITS;
+            if (boardingTrain < leavingTrain) {
+                i++;
+            } else if (boardingTrain > leavingTrain) {
+                j++;
+            } else {
+                // A train's postings are adjacent and ordered by position: compare first boarding with last leaving
+                long firstBoarding = boarding[i] & POSITION_MASK;
+                while (i < boarding.length && boarding[i] >>> POSITION_BITS == boardingTrain) {
+                    i++;
+                }
+                while (j + 1 < leaving.length && leaving[j + 1] >>> POSITION_BITS == leavingTrain) {
+                    j++;
+                }
+                long lastLeaving = leaving[j++] & POSITION_MASK;
+                if (firstBoarding < lastLeaving) {
+                    trains.add(boardingTrain);
+                }
+            }
+        }
+        return trains;
+    }
+
+    // Re-indexes a saved train, deferred until the surrounding transaction commits
+    public void put(TrainDetails train) {
+        long trainId = train.getTrainId();
+        List<String> stops = RouteStops.stations(train.getSource(), train.getRoutes(), train.getDestination());
+        afterCommit(() -> index(trainId, stops));
+    }
+
+    public void remove(Long trainId) {
+        afterCommit(() -> unindex(trainId));
+    }
+
+    private synchronized void index(long trainId, List<String> stops) {
+        unindex(trainId);
+        Set<String> stations = new LinkedHashSet<>();
+        for (int i = 0; i < stops.size(); i++) {
+            String station = normalize(stops.get(i));
+            long posting = posting(trainId, i);
+            postings.compute(station, (k, existing) -> insert(existing, posting));
+            stations.add(station);
+        }
+        stationsByTrain.put(trainId, stations);
+    }
+
+    private synchronized void unindex(long trainId) {
+        Set<String> stations = stationsByTrain.remove(trainId);
+        if (stations == null) {
+            return;
+        }
+        for (String station : stations) {
+            postings.computeIfPresent(station, (k, existing) -> {
+                long[] kept = Arrays.stream(existing).filter(p -> p >>> POSITION_BITS != trainId).toArray();
+                return kept.length == 0 ? null : kept;
+            });
+        }
+    }
+
+    private static long[] insert(long[] existing, long posting) {
+        if (existing == null) {
+            return new long[]{posting};
+        }
+        int at = Arrays.binarySearch(existing, posting);
+        if (at >= 0) {
+            return existing;
+        }
+        at = -at - 1;
+        long[] updated = new long[existing.length + 1];
+        System.arraycopy(existing, 0, updated, 0, at);
+        updated[at] = posting;
+        System.arraycopy(existing, at, updated, at + 1, existing.length - at);
+        return updated;
+    }
+
+    private static long posting(long trainId, int position) {
+        if (position > POSITION_MASK) {
+            throw new IllegalArgumentException("Train " + trainId + " has more than " + POSITION_MASK + " stops");
+        }
+        return trainId << POSITION_BITS | position;
+    }
+
+    private static String normalize(String station) {
+        return Objects.requireNonNullElse(station, "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.microservices.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.TrainChangedEvent;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tells subscribers (ticket-service's train cache) that a train changed, so
+ * they drop their copy. Events go out after the change commits and are sent
+ * asynchronously; a lost event only means the subscriber serves the old
+ * details until its cache TTL runs out. A cancelled train also asks
+ * ticket-service to cancel its tickets, on an internal endpoint separate
+ * from the cache webhook. Each delivery is a client span of the request
+ * that changed the train and carries its traceparent.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainChangePublisher.class);
+
+    private final ObjectMapper objectMapper;
+    private final Tracer tracer;
+    private final ObjectProvider<Propagator> propagator;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    @Value("${train.invalidation.subscribers:http://localhost:5100/tickets/cache/trains/invalidate}")
+    private List<String> subscribers;
+
+    @Value("${train.cancellation.url:http://localhost:5100/tickets/train-cancellations}")
+    private String cancellationUrl;
+
+    public void publish(Long trainId, String change) {
+        TrainChangedEvent event = new TrainChangedEvent(trainId, change);
+        afterCommit(() -> send(event));
+    }
+
+    // Starts ticket-service's mass cancellation of the train's tickets once the cancellation commits
+    public void requestCancellation(Long trainId) {
+        afterCommit(() -> post(cancellationUrl + "/" + trainId, "POST train-cancellation", trainId,
+                HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void send(TrainChangedEvent event) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize train change event for train {}: {}", event.getTrainId(), e.getMessage());
+            return;
+        }
+        for (String subscriber : subscribers) {
+            post(subscriber, "POST train-change", event.getTrainId(), HttpRequest.BodyPublishers.ofString(body));
+        }
+    }
+
+    private void post(String url, String spanName, Long trainId, HttpRequest.BodyPublisher body) {
+        Propagator headers = propagator.getIfAvailable(() -> Propagator.NOOP);
+        Span span = tracer.nextSpan().name(spanName)
+                .tag("http.url", url)
+                .tag("train.id", String.valueOf(trainId))
+                .start();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(2))
+                .header("Content-Type", "application/json")
+                .POST(body);
+        headers.inject(span.context(), builder, HttpRequest.Builder::header);
+        httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        span.error(error);
+                    } else {
+                        span.tag("http.status_code", String.valueOf(response.statusCode()));
+                    }
+                    span.end();
+                    if (error != null) {
+                        logger.warn("Train {} event not delivered to {}: {}", trainId, url, error.getMessage());
+                    } else if (response.statusCode() >= 300) {
+                        logger.warn("{} rejected train {} event: {}", url, trainId, response.statusCode());
+                    }
+                });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
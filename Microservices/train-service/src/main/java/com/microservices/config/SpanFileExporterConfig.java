@@ -0,0 +1,139 @@
+package com.microservices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes finished spans as JSON lines to a local file, so a single slow
+ * request can be followed across services without a tracing backend. Off
+ * unless tracing.file.enabled=true. Every service writes its own file into
+ * the same directory by default, and Microservices/tracing/TraceView.java
+ * joins them by trace id. A file that reaches tracing.file.max-bytes is
+ * moved aside to name.1.ndjson, replacing the previous one, so each service
+ * keeps at most two files. Spans reach the exporter through Boot's batch
+ * span processor, off the request thread. The services are built
+ * separately, so each carries an identical copy of this class.
+ */
+@Configuration
+@ConditionalOnClass(SpanExporter.class)
+@ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+public class SpanFileExporterConfig {
+
+    @Bean
+    public SpanExporter fileSpanExporter(
+            @Value("${tracing.file.path:${java.io.tmpdir}/railway-traces/${spring.application.name:spans}.ndjson}") String path,
+            @Value("${tracing.file.max-bytes:104857600}") long maxBytes,
+            ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(Paths.get(path), maxBytes, objectMapper);
+    }
+
+    static final class FileSpanExporter implements SpanExporter {
+
+        private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+        private final Path path;
+        private final Path rotated;
+        private final long maxBytes;
+        private final ObjectMapper objectMapper;
+        private Writer writer;
+        private long written;
+
+        FileSpanExporter(Path path, long maxBytes, ObjectMapper objectMapper) throws IOException {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            String name = path.getFileName().toString();
+            this.path = path;
+            this.rotated = path.resolveSibling(name.endsWith(".ndjson")
+                    ? name.substring(0, name.length() - ".ndjson".length()) + ".1.ndjson"
+                    : name + ".1");
+            this.maxBytes = maxBytes;
+            this.objectMapper = objectMapper;
+            open();
+        }
+
+        @Override
+        public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+            try {
+                for (SpanData span : spans) {
+                    String line = objectMapper.writeValueAsString(toJson(span));
+                    writer.write(line);
+                    writer.write('\n');
+                    // Spans are mostly ASCII, so characters are a close enough measure of bytes
+                    written += line.length() + 1;
+                }
+                writer.flush();
+                if (written >= maxBytes) {
+                    rotate();
+                }
+                return CompletableResultCode.ofSuccess();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            }
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public synchronized CompletableResultCode shutdown() {
+            try {
+                writer.close();
+                return CompletableResultCode.ofSuccess();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            }
+        }
+
+        private void open() throws IOException {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            written = Files.size(path);
+        }
+
+        private void rotate() throws IOException {
+            writer.close();
+            Files.move(path, rotated, StandardCopyOption.REPLACE_EXISTING);
+            open();
+        }
+
+        private static Map<String, Object> toJson(SpanData span) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("traceId", span.getTraceId());
+            json.put("spanId", span.getSpanId());
+            json.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+            json.put("service", span.getResource().getAttribute(SERVICE_NAME));
+            json.put("name", span.getName());
+            json.put("kind", span.getKind().name());
+            json.put("startMicros", span.getStartEpochNanos() / 1_000);
+            json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+            json.put("status", span.getStatus().getStatusCode().name());
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+            json.put("attributes", attributes);
+            return json;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.microservices.controllers;
+
+import com.microservices.dto.SeatAvailabilityResponse;
+import com.microservices.dto.SeatBookingRequest;
+import com.microservices.dto.SeatBookingResponse;
+import com.microservices.dto.SeatConfigurationRequest;
+import com.microservices.dto.SeatConfigurationResponse;
+import com.microservices.dto.TrainSeatOverview;
+import com.microservices.exception.TrainException;
+import com.microservices.service.SeatBookingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/trains")
+public class SeatBookingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatBookingController.class);
+    private final SeatBookingService seatBookingService;
+
+    // Replace the coach/class layout of a train
+    @PutMapping("/{trainId}/seats/configuration")
+    public ResponseEntity<?> configureSeats(@PathVariable Long trainId,
+            @Valid @RequestBody List<SeatConfigurationRequest> classes) {
+        try {
+            SeatConfigurationResponse res = seatBookingService.configureSeats(trainId, classes);
+            logger.info("Configured seats for train {}: {} seats", trainId, res.getTotalSeats());
+            return ResponseEntity.ok(res);
+        } catch (TrainException e) {
+            logger.error("Seat configuration failed for train {}: {}", trainId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{trainId}/seats/configuration")
+    public ResponseEntity<?> getSeatConfiguration(@PathVariable Long trainId) {
+        try {
+            return ResponseEntity.ok(seatBookingService.getSeatConfiguration(trainId));
+        } catch (TrainException e) {
+            logger.error("Seat configuration not found for train {}: {}", trainId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Availability per class for a travel date, optionally for one leg of the route
+    @GetMapping("/{trainId}/seats/{date}")
+    public ResponseEntity<?> getSeatAvailability(@PathVariable Long trainId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+        try {
+            SeatAvailabilityResponse res = seatBookingService.getSeatAvailability(trainId, date, from, to);
+            return ResponseEntity.ok(res);
+        } catch (TrainException e) {
+            logger.error("Seat availability failed for train {}: {}", trainId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Free seat numbers of one class, for the seat picker
+    @GetMapping("/{trainId}/available-seats")
+    public ResponseEntity<?> getAvailableSeatNumbers(@PathVariable Long trainId, @RequestParam String seatClass,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+        try {
+            return ResponseEntity.ok(seatBookingService.getAvailableSeatNumbers(trainId, seatClass, date, from, to));
+        } catch (TrainException e) {
+            logger.error("Fetching seat numbers failed for train {}: {}", trainId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{trainId}/seats/{date}/overview")
+    public ResponseEntity<?> getSeatOverview(@PathVariable Long trainId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            TrainSeatOverview res = seatBookingService.getSeatOverview(trainId, date);
+            return ResponseEntity.ok(res);
+        } catch (TrainException e) {
+            logger.error("Seat overview failed for train {}: {}", trainId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/seats/book")
+    public ResponseEntity<?> bookSeats(@Valid @RequestBody SeatBookingRequest req) {
+        try {
+            SeatBookingResponse res = seatBookingService.bookSeats(req);
+            logger.info("Seats booked on train {}: {}", req.getTrainId(), res.getSeatNumbers());
+            return ResponseEntity.ok(res);
+        } catch (TrainException e) {
+            logger.error("Seat booking failed for train {}: {}", req.getTrainId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/seats/book/{bookingReference}")
+    public ResponseEntity<?> releaseSeats(@PathVariable String bookingReference) {
+        try {
+            String res = seatBookingService.releaseSeats(bookingReference);
+            logger.info("Seats released for {}: {}", bookingReference, res);
+            return ResponseEntity.ok(res);
+        } catch (TrainException e) {
+            logger.error("Seat release failed for {}: {}", bookingReference, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
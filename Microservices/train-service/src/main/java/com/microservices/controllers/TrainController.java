@@ -1,5 +1,8 @@
 package com.microservices.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.SeatAdjustmentRequest;
 import com.microservices.exception.TrainException;
 import com.microservices.model.TrainDetails;
 import com.microservices.service.TrainService;
@@ -8,10 +11,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -22,6 +29,7 @@ public class TrainController {
 
     private static final Logger logger = LoggerFactory.getLogger(TrainController.class);
     private final TrainService trainService;
+    private final ObjectMapper objectMapper;
 
     // Add a new train
     @PostMapping("/add")
@@ -57,6 +65,28 @@ public class TrainController {
         return new ResponseEntity<>(trainList, HttpStatus.OK);
     }
 
+    // Keyset-paginated variant of /all
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<TrainDetails>> getTrainsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(trainService.getTrainsPage(after, size));
+    }
+
+    // Every train as newline-delimited JSON, written as rows are read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllTrains() {
+        StreamingResponseBody body = out -> trainService.forEachTrain(train -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(train));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     // Search trains by keyword
     @GetMapping("/search")
     public ResponseEntity<?> searchTrain(@RequestParam String keyword) {
@@ -148,6 +178,19 @@ public class TrainController {
         }
     }
 
+    // Apply many seat adjustments in a single transaction
+    @PutMapping("/seats/batch")
+    public ResponseEntity<?> adjustSeats(@RequestBody List<SeatAdjustmentRequest> adjustments) {
+        try {
+            String res = trainService.adjustSeats(adjustments);
+            logger.info("Adjusted seats in batch of {}: {}", adjustments.size(), res);
+            return new ResponseEntity<>(res, HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Failed to adjust seats in batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/operational-status/{id}")
     public String getOperationalStatus(@PathVariable Long id) {
         try {
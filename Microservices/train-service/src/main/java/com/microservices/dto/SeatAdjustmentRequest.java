@@ -0,0 +1,15 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAdjustmentRequest {
+    // Checked by TrainServiceImplementation.adjustSeats; the endpoint does not run bean validation
+    private Long trainId;
+    // Negative to take seats, positive to give them back
+    private int delta;
+}
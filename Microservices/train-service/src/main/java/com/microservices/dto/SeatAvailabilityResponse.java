@@ -0,0 +1,19 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailabilityResponse {
+    private Long trainId;
+    private LocalDate travelDate;
+    private Integer availableSeats;
+    private Integer totalSeats;
+    private List<SeatAvailabilityDTO> seatAvailability;
+}
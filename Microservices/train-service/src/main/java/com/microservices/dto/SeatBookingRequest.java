@@ -0,0 +1,40 @@
+package com.microservices.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBookingRequest {
+    @NotNull(message = "Train ID is required")
+    private Long trainId;
+
+    @NotNull(message = "Travel date is required")
+    private LocalDate travelDate;
+
+    @NotBlank(message = "Seat class is required")
+    private String seatClass;
+
+    @Min(value = 1, message = "At least one seat must be booked")
+    private int seatCount;
+
+    // Boarding and leaving stops on the train's route; the terminals when absent
+    private String fromStation;
+    private String toStation;
+
+    // Exact seats picked on the seat map; when empty the allocator chooses
+    private List<Integer> preferredSeats;
+
+    private String passengerName;
+
+    // Ticket number or other caller reference; generated when absent
+    private String bookingReference;
+}
@@ -0,0 +1,24 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBookingResponse {
+    private String bookingReference;
+    private Long trainId;
+    private LocalDate travelDate;
+    private String seatClass;
+    private String fromStation;
+    private String toStation;
+    private List<Integer> seatNumbers;
+    private List<Integer> coachNumbers;
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,29 @@
+package com.microservices.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One class of a train layout; a layout is a list of these in seat-number order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatConfigurationRequest {
+    @NotBlank(message = "Seat class is required")
+    private String seatClass;
+
+    @NotNull(message = "Coach count is required")
+    @Min(value = 1, message = "Coach count must be at least 1")
+    private Integer coachCount;
+
+    @NotNull(message = "Seats per coach is required")
+    @Min(value = 1, message = "Seats per coach must be at least 1")
+    private Integer seatsPerCoach;
+
+    private BigDecimal price;
+}
@@ -0,0 +1,18 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatConfigurationResponse {
+    private Long trainId;
+    private String trainName;
+    private Integer totalSeats;
+    private Integer totalCoaches;
+    private List<SeatAvailabilityDTO> seatClasses;
+}
@@ -0,0 +1,22 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainSeatOverview {
+    private Long trainId;
+    private String trainName;
+    private LocalDate travelDate;
+    private Integer totalSeats;
+    private Integer bookedSeats;
+    private Integer availableSeats;
+    private Double occupancyPercent;
+    private List<SeatAvailabilityDTO> seatClasses;
+}
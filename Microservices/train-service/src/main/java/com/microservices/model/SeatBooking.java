@@ -0,0 +1,67 @@
+package com.microservices.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Durable record of one seat sold for one journey segment; the in-memory seat maps are rebuilt from these rows.
+// database-seat-booking-migration.sql adds the exclusion constraint that stops two rows of a seat from
+// overlapping in [from_stop, to_stop); JPA cannot declare it.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seat_bookings",
+        indexes = {
+                @Index(name = "idx_seat_train_date", columnList = "train_id, travel_date"),
+                @Index(name = "idx_seat_booking_reference", columnList = "booking_reference")
+        })
+public class SeatBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seat_booking_id")
+    private Long seatBookingId;
+
+    @Column(name = "train_id", nullable = false)
+    private Long trainId;
+
+    @Column(name = "travel_date", nullable = false)
+    private LocalDate travelDate;
+
+    @Column(name = "seat_class", nullable = false, length = 20)
+    private String seatClass;
+
+    @Column(name = "coach_number", nullable = false)
+    private Integer coachNumber;
+
+    @Column(name = "seat_number", nullable = false)
+    private Integer seatNumber;
+
+    // Boarding and leaving stops; null means the train's terminal
+    @Column(name = "from_station")
+    private String fromStation;
+
+    @Column(name = "to_station")
+    private String toStation;
+
+    // Route positions of the boarding and leaving stops when the seat was sold
+    @Column(name = "from_stop")
+    private Integer fromStop;
+
+    @Column(name = "to_stop")
+    private Integer toStop;
+
+    @Column(name = "booking_reference", nullable = false, length = 40)
+    private String bookingReference;
+
+    @Column(name = "passenger_name")
+    private String passengerName;
+
+    @Column(name = "booked_at", nullable = false)
+    private LocalDateTime bookedAt;
+}
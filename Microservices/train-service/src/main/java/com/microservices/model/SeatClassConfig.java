@@ -0,0 +1,29 @@
+package com.microservices.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One travel class of a train, e.g. 4 SLEEPER coaches of 72 berths
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class SeatClassConfig {
+
+    @Column(name = "seat_class", nullable = false, length = 20)
+    private String seatClass;
+
+    @Column(name = "coach_count", nullable = false)
+    private Integer coachCount;
+
+    @Column(name = "seats_per_coach", nullable = false)
+    private Integer seatsPerCoach;
+
+    @Column(name = "price")
+    private BigDecimal price;
+}
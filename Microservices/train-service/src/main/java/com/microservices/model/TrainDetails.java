@@ -41,6 +41,7 @@ public class TrainDetails {
 
     @ElementCollection
     @CollectionTable(name = "train_routes", joinColumns = @JoinColumn(name = "train_id"))
+    @OrderColumn(name = "route_order")
     @Column(name = "route")
     @NotEmpty(message = "Routes cannot be empty")
     private List<@NotBlank(message = "Route cannot be blank") String> routes;
@@ -50,6 +51,12 @@ public class TrainDetails {
     @Column(name = "inactive_date")
     private List<LocalDate> inactiveDates;
 
+    // Class layout in seat-number order; each class covers a contiguous seat range
+    @ElementCollection
+    @CollectionTable(name = "train_seat_classes", joinColumns = @JoinColumn(name = "train_id"))
+    @OrderColumn(name = "class_order")
+    private List<SeatClassConfig> seatClasses;
+
     @NotNull(message = "Departure time is required")
     @Column(name = "departure_time", nullable = false)
     private LocalTime departureTime;
@@ -82,6 +89,11 @@ public class TrainDetails {
     @Column(name = "maintenance_notes", length = 500)
     private String maintenanceNotes;
 
+    // Optimistic lock, bumped by entity saves and by the conditional seat updates
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     // Custom setter methods
     public void setRoutes(List<String> routes) {
         this.routes = routes;
@@ -0,0 +1,20 @@
+package com.microservices.repository;
+
+import com.microservices.model.SeatBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SeatBookingRepository extends JpaRepository<SeatBooking, Long> {
+    List<SeatBooking> findByTrainIdAndTravelDate(Long trainId, LocalDate travelDate);
+    List<SeatBooking> findByBookingReference(String bookingReference);
+    long countByTrainId(Long trainId);
+
+    @Modifying
+    @Query("DELETE FROM SeatBooking s WHERE s.bookingReference = :bookingReference")
+    int deleteByBookingReference(@Param("bookingReference") String bookingReference);
+}
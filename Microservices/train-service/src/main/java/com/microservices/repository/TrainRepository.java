@@ -1,12 +1,18 @@
 package com.microservices.repository;
 
 import com.microservices.model.TrainDetails;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TrainRepository extends JpaRepository<TrainDetails, Long> {
     List<TrainDetails> findBytrainNameStartingWithIgnoreCase(String keyword);
@@ -15,4 +21,25 @@ public interface TrainRepository extends JpaRepository<TrainDetails, Long> {
     @Query("SELECT i FROM TrainDetails t JOIN t.inactiveDates i WHERE t.trainId = :trainId")
     List<LocalDate> getALlInActiveDates(@Param("trainId") Long trainId);
 
+    // Decrements only when enough seats remain; returns 0 when the train is missing or short of seats
+    @Modifying
+    @Query("UPDATE TrainDetails t SET t.totalSeats = t.totalSeats - :count, t.version = t.version + 1 WHERE t.trainId = :trainId AND t.totalSeats >= :count")
+    int decreaseSeatsIfAvailable(@Param("trainId") Long trainId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE TrainDetails t SET t.totalSeats = t.totalSeats + :count, t.version = t.version + 1 WHERE t.trainId = :trainId")
+    int increaseSeats(@Param("trainId") Long trainId, @Param("count") int count);
+
+    // Keyset page: rows after the cursor in id order, so deep pages cost the same as the first
+    @Query("SELECT t FROM TrainDetails t WHERE t.trainId > :after ORDER BY t.trainId")
+    List<TrainDetails> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM TrainDetails t ORDER BY t.trainId")
+    Stream<TrainDetails> streamAll();
+
+    // Every train's terminals with one row per route stop (null for an empty route), for the station index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.trainId, t.source, t.destination, r FROM TrainDetails t LEFT JOIN t.routes r ORDER BY t.trainId, INDEX(r)")
+    List<Object[]> findAllRouteStops();
 }
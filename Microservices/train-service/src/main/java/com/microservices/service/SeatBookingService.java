@@ -0,0 +1,22 @@
+package com.microservices.service;
+
+import com.microservices.dto.SeatAvailabilityResponse;
+import com.microservices.dto.SeatBookingRequest;
+import com.microservices.dto.SeatBookingResponse;
+import com.microservices.dto.SeatConfigurationRequest;
+import com.microservices.dto.SeatConfigurationResponse;
+import com.microservices.dto.TrainSeatOverview;
+import com.microservices.exception.TrainException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SeatBookingService {
+    SeatConfigurationResponse configureSeats(Long trainId, List<SeatConfigurationRequest> classes) throws TrainException;
+    SeatConfigurationResponse getSeatConfiguration(Long trainId) throws TrainException;
+    SeatAvailabilityResponse getSeatAvailability(Long trainId, LocalDate date, String fromStation, String toStation) throws TrainException;
+    List<Integer> getAvailableSeatNumbers(Long trainId, String seatClass, LocalDate date, String fromStation, String toStation) throws TrainException;
+    SeatBookingResponse bookSeats(SeatBookingRequest request) throws TrainException;
+    String releaseSeats(String bookingReference) throws TrainException;
+    TrainSeatOverview getSeatOverview(Long trainId, LocalDate date) throws TrainException;
+}
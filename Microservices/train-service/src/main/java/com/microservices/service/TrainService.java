@@ -1,14 +1,19 @@
 package com.microservices.service;
 
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.SeatAdjustmentRequest;
 import com.microservices.exception.TrainException;
 import com.microservices.model.TrainDetails;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TrainService {
     TrainDetails addTrain(TrainDetails train);
     List<TrainDetails> getAllTrains();
+    CursorPage<TrainDetails> getTrainsPage(Long after, int size);
+    void forEachTrain(Consumer<TrainDetails> action);
     List<TrainDetails> searchTrains(String keyword);
     TrainDetails updateTrain(Long id, TrainDetails train) throws TrainException;
     void deleteTrain(Long id) throws TrainException;
@@ -21,6 +26,7 @@ public interface TrainService {
     List<TrainDetails> getTrainsBySourceAndDestination(String source, String destination);
     String decreaseSeats(Long id, int cnt);
     String increaseSeats(Long id, int cnt);
+    String adjustSeats(List<SeatAdjustmentRequest> adjustments);
     String getOperationalStatus(Long trainId) throws TrainException;
     List<LocalDate> getALlInActiveDates(Long id) throws TrainException;
     boolean toggleActiveStatus(Long trainId) throws TrainException;
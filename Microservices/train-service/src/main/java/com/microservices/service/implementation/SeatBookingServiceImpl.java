@@ -0,0 +1,297 @@
+package com.microservices.service.implementation;
+
+import com.microservices.component.SeatAllocator;
+import com.microservices.component.SeatLayout;
+import com.microservices.component.SeatMap;
+import com.microservices.dto.SeatAvailabilityDTO;
+import com.microservices.dto.SeatAvailabilityResponse;
+import com.microservices.dto.SeatBookingRequest;
+import com.microservices.dto.SeatBookingResponse;
+import com.microservices.dto.SeatConfigurationRequest;
+import com.microservices.dto.SeatConfigurationResponse;
+import com.microservices.dto.TrainSeatOverview;
+import com.microservices.exception.TrainException;
+import com.microservices.model.SeatBooking;
+import com.microservices.model.SeatClassConfig;
+import com.microservices.model.TrainDetails;
+import com.microservices.repository.SeatBookingRepository;
+import com.microservices.repository.TrainRepository;
+import com.microservices.service.SeatBookingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SeatBookingServiceImpl implements SeatBookingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatBookingServiceImpl.class);
+    private final TrainRepository trainRepository;
+    private final SeatBookingRepository seatBookingRepository;
+    private final SeatAllocator seatAllocator;
+
+    // Replace the class layout of a train
+    @Override
+    @Transactional(rollbackFor = TrainException.class)
+    public SeatConfigurationResponse configureSeats(Long trainId, List<SeatConfigurationRequest> classes) throws TrainException {
+        TrainDetails train = findTrain(trainId);
+        if (seatBookingRepository.countByTrainId(trainId) > 0) {
+            logger.warn("Seat layout change rejected for train {}: seats already booked", trainId);
+            throw new TrainException("Seat layout cannot change while seats are booked on train " + trainId);
+        }
+        List<SeatClassConfig> configs = new ArrayList<>();
+        for (SeatConfigurationRequest req : classes) {
+            configs.add(new SeatClassConfig(req.getSeatClass().trim().toUpperCase(), req.getCoachCount(),
+                    req.getSeatsPerCoach(), req.getPrice()));
+        }
+        SeatLayout layout = toLayout(configs);
+        train.setSeatClasses(configs);
+        trainRepository.save(train);
+        seatAllocator.evict(trainId);
+        logger.info("Configured {} seat classes ({} seats) for train {}", configs.size(), layout.totalSeats(), trainId);
+        return toConfiguration(train, layout);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatConfigurationResponse getSeatConfiguration(Long trainId) throws TrainException {
+        TrainDetails train = findTrain(trainId);
+        if (train.getSeatClasses() == null || train.getSeatClasses().isEmpty()) {
+            throw new TrainException("Seat layout not configured for train " + trainId);
+        }
+        return toConfiguration(train, toLayout(train.getSeatClasses()));
+    }
+
+    // Per-class availability for a journey segment; an unconfigured train reports no classes
+    @Override
+    @Transactional(readOnly = true)
+    public SeatAvailabilityResponse getSeatAvailability(Long trainId, LocalDate date, String fromStation,
+            String toStation) throws TrainException {
+        SeatMap seatMap = seatAllocator.getSeatMap(trainId, date);
+        if (seatMap == null) {
+            findTrain(trainId);
+            return new SeatAvailabilityResponse(trainId, date, 0, 0, new ArrayList<>());
+        }
+        long segment = requireSegment(seatMap, fromStation, toStation, trainId);
+        SeatLayout layout = seatMap.getLayout();
+        return new SeatAvailabilityResponse(trainId, date, seatMap.availableTotal(segment), layout.totalSeats(),
+                toClasses(layout, seatMap, segment));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> getAvailableSeatNumbers(Long trainId, String seatClass, LocalDate date, String fromStation,
+            String toStation) throws TrainException {
+        SeatMap seatMap = requireSeatMap(trainId, date);
+        int classIdx = requireClass(seatMap.getLayout(), seatClass, trainId);
+        long segment = requireSegment(seatMap, fromStation, toStation, trainId);
+        int[] buffer = new int[seatMap.getLayout().classSeats(classIdx)];
+        int count = seatMap.copyFreeSeats(classIdx, segment, buffer);
+        List<Integer> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(buffer[i]);
+        }
+        return seats;
+    }
+
+    // Allocate seats in memory first, then persist; a rollback hands the seats back
+    @Override
+    @Transactional(rollbackFor = TrainException.class)
+    public SeatBookingResponse bookSeats(SeatBookingRequest request) throws TrainException {
+        Long trainId = request.getTrainId();
+        LocalDate date = request.getTravelDate();
+        SeatMap seatMap = requireSeatMap(trainId, date);
+        SeatLayout layout = seatMap.getLayout();
+        int classIdx = requireClass(layout, request.getSeatClass(), trainId);
+        long segment = requireSegment(seatMap, request.getFromStation(), request.getToStation(), trainId);
+
+        int[] seats;
+        List<Integer> preferred = request.getPreferredSeats();
+        if (preferred != null && !preferred.isEmpty()) {
+            if (preferred.size() != request.getSeatCount()) {
+                throw new TrainException("Selected seats do not match the requested seat count");
+            }
+            seats = new int[preferred.size()];
+            for (int i = 0; i < seats.length; i++) {
+                seats[i] = preferred.get(i);
+                if (seats[i] < layout.classStart(classIdx) || seats[i] > layout.classEnd(classIdx)) {
+                    throw new TrainException("Seat " + seats[i] + " is not in class " + layout.className(classIdx));
+                }
+            }
+            if (!seatMap.occupy(seats, segment)) {
+                logger.warn("Selected seats no longer available on train {} for {}", trainId, date);
+                throw new TrainException("Selected seats are no longer available");
+            }
+        } else {
+            seats = seatMap.allocate(classIdx, request.getSeatCount(), segment);
+            if (seats == null) {
+                logger.warn("Not enough {} seats on train {} for {}: requested {}", layout.className(classIdx),
+                        trainId, date, request.getSeatCount());
+                throw new TrainException("Not enough seats available in class " + layout.className(classIdx));
+            }
+        }
+        releaseOnRollback(seatMap, seats, segment);
+
+        String reference = request.getBookingReference() != null && !request.getBookingReference().isBlank()
+                ? request.getBookingReference()
+                : "SEAT-" + UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase();
+        LocalDateTime now = LocalDateTime.now();
+        int fromStop = Long.numberOfTrailingZeros(segment);
+        int toStop = Long.SIZE - Long.numberOfLeadingZeros(segment);
+        List<SeatBooking> rows = new ArrayList<>(seats.length);
+        List<Integer> seatNumbers = new ArrayList<>(seats.length);
+        List<Integer> coachNumbers = new ArrayList<>(seats.length);
+        for (int seat : seats) {
+            int coach = layout.coachOf(seat);
+            rows.add(new SeatBooking(null, trainId, date, layout.className(classIdx), coach + 1, seat,
+                    request.getFromStation(), request.getToStation(), fromStop, toStop, reference,
+                    request.getPassengerName(), now));
+            seatNumbers.add(seat);
+            coachNumbers.add(coach + 1);
+        }
+        // The exclusion constraint catches a seat sold for an overlapping leg by another instance
+        try {
+            seatBookingRepository.saveAllAndFlush(rows);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Seats {} on train {} for {} were sold concurrently: {}", seatNumbers, trainId, date,
+                    e.getMostSpecificCause().getMessage());
+            throw new TrainException("Selected seats are no longer available");
+        }
+
+        BigDecimal price = layout.price(classIdx);
+        BigDecimal total = price != null ? price.multiply(BigDecimal.valueOf(seats.length)) : null;
+        logger.info("Booked seats {} on train {} for {} under {}", seatNumbers, trainId, date, reference);
+        return new SeatBookingResponse(reference, trainId, date, layout.className(classIdx),
+                request.getFromStation(), request.getToStation(), seatNumbers, coachNumbers, total);
+    }
+
+    // Free every seat held under a booking reference
+    @Override
+    @Transactional(rollbackFor = TrainException.class)
+    public String releaseSeats(String bookingReference) throws TrainException {
+        List<SeatBooking> rows = seatBookingRepository.findByBookingReference(bookingReference);
+        if (rows.isEmpty()) {
+            logger.warn("No seats found for booking reference: {}", bookingReference);
+            throw new TrainException("No seats found for booking reference " + bookingReference);
+        }
+        seatBookingRepository.deleteByBookingReference(bookingReference);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (SeatBooking row : rows) {
+                    SeatMap seatMap = seatAllocator.getLoadedSeatMap(row.getTrainId(), row.getTravelDate());
+                    if (seatMap != null) {
+                        long segment = seatMap.getStops().segment(row.getFromStation(), row.getToStation());
+                        seatMap.release(new int[]{row.getSeatNumber()},
+                                segment != 0 ? segment : seatMap.getStops().fullRoute());
+                    }
+                }
+            }
+        });
+        logger.info("Released {} seats for booking reference {}", rows.size(), bookingReference);
+        return "Released " + rows.size() + " seats";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TrainSeatOverview getSeatOverview(Long trainId, LocalDate date) throws TrainException {
+        TrainDetails train = findTrain(trainId);
+        SeatMap seatMap = seatAllocator.getSeatMap(trainId, date);
+        if (seatMap == null) {
+            return new TrainSeatOverview(trainId, train.getTrainName(), date, 0, 0, 0, 0.0, new ArrayList<>());
+        }
+        SeatLayout layout = seatMap.getLayout();
+        int total = layout.totalSeats();
+        int available = seatMap.availableTotal(seatMap.getStops().fullRoute());
+        int booked = total - available;
+        double occupancy = total == 0 ? 0.0 : Math.round(booked * 1000.0 / total) / 10.0;
+        return new TrainSeatOverview(trainId, train.getTrainName(), date, total, booked, available, occupancy,
+                toClasses(layout, seatMap, seatMap.getStops().fullRoute()));
+    }
+
+    private void releaseOnRollback(SeatMap seatMap, int[] seats, long segment) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    seatMap.release(seats, segment);
+                }
+            }
+        });
+    }
+
+    private TrainDetails findTrain(Long trainId) throws TrainException {
+        Optional<TrainDetails> opt = trainRepository.findById(trainId);
+        if (opt.isEmpty()) {
+            logger.warn("Train not found: {}", trainId);
+            throw new TrainException("Train not found with id : " + trainId);
+        }
+        return opt.get();
+    }
+
+    private SeatMap requireSeatMap(Long trainId, LocalDate date) throws TrainException {
+        SeatMap seatMap = seatAllocator.getSeatMap(trainId, date);
+        if (seatMap == null) {
+            findTrain(trainId);
+            throw new TrainException("Seat layout not configured for train " + trainId);
+        }
+        return seatMap;
+    }
+
+    private int requireClass(SeatLayout layout, String seatClass, Long trainId) throws TrainException {
+        int classIdx = seatClass == null ? -1 : layout.classIndex(seatClass);
+        if (classIdx < 0) {
+            throw new TrainException("Seat class " + seatClass + " not available on train " + trainId);
+        }
+        return classIdx;
+    }
+
+    private long requireSegment(SeatMap seatMap, String fromStation, String toStation, Long trainId)
+            throws TrainException {
+        long segment = seatMap.getStops().segment(fromStation, toStation);
+        if (segment == 0) {
+            throw new TrainException("Train " + trainId + " does not run from " + fromStation + " to " + toStation);
+        }
+        return segment;
+    }
+
+    private SeatLayout toLayout(List<SeatClassConfig> configs) throws TrainException {
+        try {
+            return SeatLayout.of(configs);
+        } catch (IllegalArgumentException e) {
+            throw new TrainException(e.getMessage());
+        }
+    }
+
+    private SeatConfigurationResponse toConfiguration(TrainDetails train, SeatLayout layout) {
+        List<SeatAvailabilityDTO> classes = new ArrayList<>(layout.classCount());
+        for (int cls = 0; cls < layout.classCount(); cls++) {
+            classes.add(new SeatAvailabilityDTO(layout.className(cls), null, layout.classSeats(cls),
+                    layout.price(cls), layout.classStart(cls), layout.classEnd(cls)));
+        }
+        return new SeatConfigurationResponse(train.getTrainId(), train.getTrainName(), layout.totalSeats(),
+                layout.totalCoaches(), classes);
+    }
+
+    private List<SeatAvailabilityDTO> toClasses(SeatLayout layout, SeatMap seatMap, long segment) {
+        List<SeatAvailabilityDTO> classes = new ArrayList<>(layout.classCount());
+        for (int cls = 0; cls < layout.classCount(); cls++) {
+            classes.add(new SeatAvailabilityDTO(layout.className(cls), seatMap.available(cls, segment), layout.classSeats(cls),
+                    layout.price(cls), layout.classStart(cls), layout.classEnd(cls)));
+        }
+        return classes;
+    }
+}
@@ -1,25 +1,43 @@
 package com.microservices.service.implementation;
 
+import com.microservices.component.SeatAllocator;
+import com.microservices.component.StationIndex;
+import com.microservices.component.TrainChangePublisher;
 import com.microservices.domain.TrainStatus;
+import com.microservices.dto.CursorPage;
+import com.microservices.dto.SeatAdjustmentRequest;
 import com.microservices.exception.TrainException;
 import com.microservices.model.TrainDetails;
 import com.microservices.repository.TrainRepository;
 import com.microservices.service.TrainService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TrainServiceImplementation implements TrainService {
 
     private static final Logger logger = LoggerFactory.getLogger(TrainServiceImplementation.class);
+    private static final int MAX_PAGE_SIZE = 500;
     private final TrainRepository trainRepository;
+    private final SeatAllocator seatAllocator;
+    private final TrainChangePublisher trainChangePublisher;
+    private final StationIndex stationIndex;
+    private final EntityManager entityManager;
 
     // Add a new train
     @Override
@@ -41,18 +59,46 @@ public class TrainServiceImplementation implements TrainService {
         train.setOperationalStatus(req.getOperationalStatus() != null ? req.getOperationalStatus() : "OPERATIONAL");
         train.setMaintenanceNotes(req.getMaintenanceNotes());
         logger.info("Adding new train: {}", req.getTrainName());
-        return trainRepository.save(train);
+        TrainDetails saved = trainRepository.save(train);
+        stationIndex.put(saved);
+        return saved;
     }
 
     // Get all trains
     @Override
+    @Transactional(readOnly = true)
     public List<TrainDetails> getAllTrains() {
         logger.info("Fetching all trains");
         return trainRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TrainDetails> getTrainsPage(Long after, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether another page follows
+        List<TrainDetails> rows = trainRepository.findPageAfter(after != null ? after : 0L, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<TrainDetails> items = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getTrainId() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    // Streams every train through the action, detaching each one so the persistence context stays empty
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTrain(Consumer<TrainDetails> action) {
+        try (Stream<TrainDetails> trains = trainRepository.streamAll()) {
+            trains.forEach(train -> {
+                action.accept(train);
+                entityManager.detach(train);
+            });
+        }
+    }
+
     // Search trains by keyword
     @Override
+    @Transactional(readOnly = true)
     public List<TrainDetails> searchTrains(String keyword) {
         logger.info("Searching trains with keyword: {}", keyword);
         return trainRepository.findBytrainNameStartingWithIgnoreCase(keyword);
@@ -119,7 +165,12 @@ public class TrainServiceImplementation implements TrainService {
         }
         
         logger.info("Saving updated train: {}", exTrain);
-        return trainRepository.save(exTrain);
+        TrainDetails saved = trainRepository.save(exTrain);
+        // Route or layout may have changed, so cached seat maps must be rebuilt
+        seatAllocator.evict(id);
+        stationIndex.put(saved);
+        trainChangePublisher.publish(id, "UPDATED");
+        return saved;
     }
 
     // Delete train by ID
@@ -131,11 +182,15 @@ public class TrainServiceImplementation implements TrainService {
             throw new TrainException("Train not found with id : "+id);
         }
         trainRepository.deleteById(id);
+        seatAllocator.evict(id);
+        stationIndex.remove(id);
+        trainChangePublisher.publish(id, "DELETED");
         logger.info("Deleted train: {}", id);
     }
 
     // Get train by ID
     @Override
+    @Transactional(readOnly = true)
     public TrainDetails getTrainById(Long id) throws TrainException {
         Optional<TrainDetails> otp = trainRepository.findById(id);
         if(otp.isPresent()){
@@ -171,11 +226,16 @@ public class TrainServiceImplementation implements TrainService {
         TrainDetails train = opt.get();
         train.setStatus(TrainStatus.CANCELLED);
         logger.info("Cancelled train: {}", id);
-        return trainRepository.save(train);
+        TrainDetails saved = trainRepository.save(train);
+        trainChangePublisher.publish(id, "CANCELLED");
+        // ticket-service cancels and refunds the train's tickets
+        trainChangePublisher.requestCancellation(id);
+        return saved;
     }
 
     // Get train status
     @Override
+    @Transactional(readOnly = true)
     public String getTrainStatus(Long id) throws TrainException {
         Optional<TrainDetails> otp = trainRepository.findById(id);
         if(otp.isPresent()){
@@ -188,6 +248,7 @@ public class TrainServiceImplementation implements TrainService {
 
     // Get today's trains
     @Override
+    @Transactional(readOnly = true)
     public List<TrainDetails> getTodayTrains() {
         logger.info("Fetching today's trains");
         return trainRepository.findBydepartureTime(LocalDate.now());
@@ -195,53 +256,94 @@ public class TrainServiceImplementation implements TrainService {
 
     // Get trains by date
     @Override
+    @Transactional(readOnly = true)
     public List<TrainDetails> getTrainsByDate(LocalDate date) {
         logger.info("Fetching trains by date: {}", date);
         return trainRepository.findBydepartureTime(date);
     }
 
-    // Get trains by source and destination
+    // Get trains that stop at source and later at destination, terminals or intermediate stops
+    // Stops are matched in the station index; only the matching trains are loaded
     @Override
+    @Transactional(readOnly = true)
     public List<TrainDetails> getTrainsBySourceAndDestination(String source, String destination) {
-        logger.info("Fetching trains from {} to {}", source, destination);
-        return trainRepository.findBySourceAndDestination(source, destination);
+        List<Long> trainIds = stationIndex.trainsBetween(source, destination);
+        logger.info("Fetching trains from {} to {}: {} in the station index", source, destination, trainIds.size());
+        if (trainIds.isEmpty()) {
+            return List.of();
+        }
+        return trainRepository.findAllById(trainIds).stream()
+                .sorted(Comparator.comparing(TrainDetails::getTrainId))
+                .toList();
     }
 
     // Decrease seats for a train
+    // Single conditional UPDATE, so concurrent bookings can't oversell or lose updates
     @Override
+    @Transactional
     public String decreaseSeats(Long id, int count) {
-        Optional<TrainDetails> optionalTrain = trainRepository.findById(id);
-        if (optionalTrain.isEmpty()) {
-            logger.warn("Train not found for seat decrease: {}", id);
-            throw new RuntimeException("Train not found");
-        }
-        TrainDetails train = optionalTrain.get();
-        if (train.getTotalSeats() < count) {
-            logger.warn("Not enough seats for train {}: requested {}, available {}", id, count, train.getTotalSeats());
+        if (trainRepository.decreaseSeatsIfAvailable(id, count) == 0) {
+            if (!trainRepository.existsById(id)) {
+                logger.warn("Train not found for seat decrease: {}", id);
+                throw new RuntimeException("Train not found");
+            }
+            logger.warn("Not enough seats for train {}: requested {}", id, count);
             throw new RuntimeException("Not enough available seats");
         }
-        train.setTotalSeats(train.getTotalSeats() - count);
-        trainRepository.save(train);
-        logger.info("Decreased seats for train {}: now {}", id, train.getTotalSeats());
+        logger.info("Decreased seats for train {} by {}", id, count);
         return "Seats updated successfully";
     }
 
     // Increase seats for a train
     @Override
+    @Transactional
     public String increaseSeats(Long id, int count) {
-        Optional<TrainDetails> optionalTrain = trainRepository.findById(id);
-        if (optionalTrain.isEmpty()) {
+        if (trainRepository.increaseSeats(id, count) == 0) {
             logger.warn("Train not found for seat increase: {}", id);
             throw new RuntimeException("Train not found");
         }
-        TrainDetails train = optionalTrain.get();
-        train.setTotalSeats(train.getTotalSeats() + count);
-        trainRepository.save(train);
-        logger.info("Increased seats for train {}: now {}", id, train.getTotalSeats());
+        logger.info("Increased seats for train {} by {}", id, count);
+        return "Seats updated successfully";
+    }
+
+    // Apply many seat adjustments in one transaction; any failure rolls back the whole batch
+    @Override
+    @Transactional
+    public String adjustSeats(List<SeatAdjustmentRequest> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat adjustment is required");
+        }
+        // Net the deltas per train and apply them in id order to keep lock ordering stable
+        Map<Long, Integer> netDeltas = new TreeMap<>();
+        for (SeatAdjustmentRequest adjustment : adjustments) {
+            // @Valid on the controller's List does not reach its elements, so check them here
+            if (adjustment == null || adjustment.getTrainId() == null) {
+                throw new IllegalArgumentException("Train ID is required for every seat adjustment");
+            }
+            netDeltas.merge(adjustment.getTrainId(), adjustment.getDelta(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : netDeltas.entrySet()) {
+            Long trainId = entry.getKey();
+            int delta = entry.getValue();
+            int updated;
+            if (delta < 0) {
+                updated = trainRepository.decreaseSeatsIfAvailable(trainId, -delta);
+            } else if (delta > 0) {
+                updated = trainRepository.increaseSeats(trainId, delta);
+            } else {
+                continue;
+            }
+            if (updated == 0) {
+                logger.warn("Batch seat adjustment failed for train {} with delta {}", trainId, delta);
+                throw new RuntimeException("Seat adjustment failed for train " + trainId);
+            }
+        }
+        logger.info("Applied batch seat adjustment: {} requests over {} trains", adjustments.size(), netDeltas.size());
         return "Seats updated successfully";
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String getOperationalStatus(Long id) throws TrainException {
         Optional<TrainDetails> otp = trainRepository.findById(id);
         if(otp.isPresent()){
@@ -253,6 +355,7 @@ public class TrainServiceImplementation implements TrainService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<LocalDate> getALlInActiveDates(Long id) throws TrainException {
         Optional<TrainDetails> otp = trainRepository.findById(id);
         if(otp.isPresent()){
@@ -273,6 +376,7 @@ public boolean toggleActiveStatus(Long id) throws TrainException {
         train.setIsActive(!previousStatus);
         
         trainRepository.save(train);
+        trainChangePublisher.publish(id, "ACTIVE_TOGGLED");
         
         logger.info("Toggled train {} active status from {} to {}", 
                    id, previousStatus, train.getIsActive());
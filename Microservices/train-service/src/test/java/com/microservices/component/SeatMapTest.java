@@ -0,0 +1,124 @@
+package com.microservices.component;
+
+import com.microservices.model.SeatClassConfig;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTest {
+
+    // A - B - C - D: three legs; SLEEPER seats 1-8 in two coaches, AC seats 9-12 in one
+    private static final RouteStops STOPS = RouteStops.of("A", List.of("A", "B", "C", "D"), "D");
+    private static final int SLEEPER = 0;
+    private static final int AC = 1;
+
+    private static SeatMap seatMap() {
+        SeatLayout layout = SeatLayout.of(List.of(
+                new SeatClassConfig("SLEEPER", 2, 4, BigDecimal.valueOf(500)),
+                new SeatClassConfig("AC", 1, 4, BigDecimal.valueOf(1500))));
+        return new SeatMap(layout, STOPS);
+    }
+
+    @Test
+    void segmentCoversOnlyTheLegsRidden() {
+        assertEquals(0b001L, RouteStops.segment(0, 1));
+        assertEquals(0b110L, RouteStops.segment(1, 3));
+        assertEquals(0b111L, STOPS.fullRoute());
+        assertEquals(0b010L, STOPS.segment("B", "C"));
+        assertEquals(0L, STOPS.segment("C", "B"));
+        assertEquals(0L, STOPS.segment("A", "X"));
+        assertEquals(-1L, RouteStops.segment(0, RouteStops.MAX_LEGS));
+    }
+
+    @Test
+    void seatSoldForOneLegCanBeResoldForTheOthers() {
+        SeatMap map = seatMap();
+        long ab = STOPS.segment("A", "B");
+        long bd = STOPS.segment("B", "D");
+
+        assertTrue(map.occupy(new int[]{1}, ab));
+        assertFalse(map.occupy(new int[]{1}, ab));
+        assertFalse(map.occupy(new int[]{1}, STOPS.fullRoute()));
+        assertTrue(map.occupy(new int[]{1}, bd));
+
+        assertEquals(7, map.available(SLEEPER, ab));
+        assertEquals(7, map.available(SLEEPER, STOPS.segment("C", "D")));
+        assertEquals(4, map.available(AC, STOPS.fullRoute()));
+    }
+
+    @Test
+    void occupyIsAllOrNothing() {
+        SeatMap map = seatMap();
+        long full = STOPS.fullRoute();
+        assertTrue(map.occupy(new int[]{2}, STOPS.segment("B", "C")));
+
+        assertFalse(map.occupy(new int[]{1, 2, 3}, full));
+        assertFalse(map.occupy(new int[]{4, 4}, full));
+        assertFalse(map.occupy(new int[]{5, 99}, full));
+
+        // None of the rejected requests may have left a seat behind
+        assertEquals(7, map.available(SLEEPER, full));
+        assertEquals(8, map.available(SLEEPER, STOPS.segment("A", "B")));
+    }
+
+    @Test
+    void releaseClearsOnlyTheReleasedLegs() {
+        SeatMap map = seatMap();
+        long ab = STOPS.segment("A", "B");
+        long bd = STOPS.segment("B", "D");
+        assertTrue(map.occupy(new int[]{9, 10}, ab));
+        assertTrue(map.occupy(new int[]{9}, bd));
+
+        map.release(new int[]{9, 10}, ab);
+
+        assertEquals(4, map.available(AC, ab));
+        assertEquals(3, map.available(AC, bd));
+        assertFalse(map.occupy(new int[]{9}, STOPS.segment("C", "D")));
+        assertTrue(map.occupy(new int[]{9}, ab));
+    }
+
+    @Test
+    void releaseIgnoresSeatsOutsideTheLayout() {
+        SeatMap map = seatMap();
+        assertTrue(map.occupy(new int[]{3}, STOPS.fullRoute()));
+
+        map.release(new int[]{0, 3, 100}, STOPS.fullRoute());
+
+        assertEquals(12, map.availableTotal(STOPS.fullRoute()));
+    }
+
+    @Test
+    void singlePassengerGetsTheMostSoldSeatThatFits() {
+        SeatMap map = seatMap();
+        assertTrue(map.occupy(new int[]{6}, STOPS.segment("A", "B")));
+
+        assertArrayEquals(new int[]{6}, map.allocate(SLEEPER, 1, STOPS.segment("B", "D")));
+        assertEquals(7, map.available(SLEEPER, STOPS.fullRoute()));
+    }
+
+    @Test
+    void groupGetsAdjacentSeatsInOneCoach() {
+        SeatMap map = seatMap();
+        long full = STOPS.fullRoute();
+        // Coach 0 keeps seats 1-2 free, coach 1 keeps 5-8 free
+        assertTrue(map.occupy(new int[]{3, 4}, full));
+
+        assertArrayEquals(new int[]{1, 2}, map.allocate(SLEEPER, 2, full));
+        assertArrayEquals(new int[]{5, 6, 7}, map.allocate(SLEEPER, 3, full));
+        assertNull(map.allocate(SLEEPER, 2, full));
+        assertEquals(1, map.available(SLEEPER, full));
+    }
+
+    @Test
+    void groupIsSplitWhenNoCoachHasARun() {
+        SeatMap map = seatMap();
+        long full = STOPS.fullRoute();
+        assertTrue(map.occupy(new int[]{2, 4, 5, 7}, full));
+
+        assertArrayEquals(new int[]{1, 3, 6}, map.allocate(SLEEPER, 3, full));
+        assertEquals(1, map.available(SLEEPER, full));
+    }
+}
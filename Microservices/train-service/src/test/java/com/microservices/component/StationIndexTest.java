@@ -0,0 +1,92 @@
+package com.microservices.component;
+
+import com.microservices.model.TrainDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StationIndexTest {
+
+    private StationIndex index;
+
+    // Outside a transaction put and remove apply at once, so no repository is needed
+    @BeforeEach
+    void createIndex() {
+        index = new StationIndex(null, null);
+    }
+
+    private void put(long trainId, String source, List<String> routes, String destination) {
+        TrainDetails train = new TrainDetails();
+        train.setTrainId(trainId);
+        train.setSource(source);
+        train.setRoutes(routes);
+        train.setDestination(destination);
+        index.put(train);
+    }
+
+    @Test
+    void matchesOnlyInTravelDirection() {
+        put(1, "Mumbai", List.of("Surat", "Vadodara"), "Delhi");
+
+        assertEquals(List.of(1L), index.trainsBetween("Mumbai", "Delhi"));
+        assertEquals(List.of(1L), index.trainsBetween("Surat", "Vadodara"));
+        assertEquals(List.of(), index.trainsBetween("Delhi", "Mumbai"));
+        assertEquals(List.of(), index.trainsBetween("Vadodara", "Surat"));
+        assertEquals(List.of(), index.trainsBetween("Surat", "Surat"));
+    }
+
+    @Test
+    void mergesTrainsInIdOrderAndSkipsTheOtherDirection() {
+        put(30, "Mumbai", List.of("Surat"), "Delhi");
+        put(10, "Delhi", List.of("Surat"), "Mumbai");
+        put(20, "Pune", List.of("Mumbai", "Surat", "Delhi"), "Jammu");
+        put(40, "Chennai", List.of(), "Delhi");
+
+        assertEquals(List.of(20L, 30L), index.trainsBetween("Mumbai", "Delhi"));
+        assertEquals(List.of(10L), index.trainsBetween("Delhi", "Mumbai"));
+        assertEquals(List.of(20L, 30L), index.trainsBetween("Surat", "Delhi"));
+        assertEquals(List.of(40L), index.trainsBetween("Chennai", "Delhi"));
+    }
+
+    @Test
+    void stationVisitedTwiceUsesFirstBoardingAndLastLeaving() {
+        // Circular service: Bengaluru appears at both ends
+        put(5, "Bengaluru", List.of("Mysuru", "Hassan"), "Bengaluru");
+
+        assertEquals(List.of(5L), index.trainsBetween("Hassan", "Bengaluru"));
+        assertEquals(List.of(5L), index.trainsBetween("Bengaluru", "Hassan"));
+        assertEquals(List.of(), index.trainsBetween("Hassan", "Mysuru"));
+    }
+
+    @Test
+    void ignoresCaseAndSurroundingSpaces() {
+        put(1, "Mumbai", List.of("Surat"), "Delhi");
+
+        assertEquals(List.of(1L), index.trainsBetween("  mumbai ", "DELHI"));
+    }
+
+    @Test
+    void blankOrUnknownStationsMatchNothing() {
+        put(1, "Mumbai", List.of("Surat"), "Delhi");
+
+        assertEquals(List.of(), index.trainsBetween(null, "Delhi"));
+        assertEquals(List.of(), index.trainsBetween("Mumbai", " "));
+        assertEquals(List.of(), index.trainsBetween("Mumbai", "Kolkata"));
+    }
+
+    @Test
+    void reroutedAndRemovedTrainsLeaveTheIndex() {
+        put(1, "Mumbai", List.of("Surat"), "Delhi");
+        put(1, "Delhi", List.of("Surat"), "Mumbai");
+
+        assertEquals(List.of(), index.trainsBetween("Mumbai", "Delhi"));
+        assertEquals(List.of(1L), index.trainsBetween("Delhi", "Mumbai"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.trainsBetween("Delhi", "Mumbai"));
+        assertEquals(List.of(), index.trainsBetween("Surat", "Mumbai"));
+    }
+}
@@ -1,8 +1,11 @@
 package com.microservices.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.dto.AuthResponse;
+import com.microservices.dto.CursorPage;
 import com.microservices.dto.LoginRequest;
 import com.microservices.dto.RegisterRequest;
+import com.microservices.dto.UserSummary;
 import com.microservices.exception.UserException;
 import com.microservices.model.User;
 import com.microservices.services.UserService;
@@ -13,8 +16,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -25,6 +32,7 @@ public class UserController {
     // for logging and debugging
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserService userSer;
+    private final ObjectMapper objectMapper;
 
     // Register a new user
     @PostMapping("/register")
@@ -60,6 +68,28 @@ public class UserController {
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
+    // Keyset-paginated variant of GET /api/users
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<UserSummary>> getUsersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userSer.getUsersPage(after, size));
+    }
+
+    // Every user as newline-delimited JSON, written as rows are read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = out -> userSer.forEachUser(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(UserSummary.of(user)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     // Search users by name, email, or phone
     // @GetMapping("/{id}")
     // public ResponseEntity<?> getUserById(@PathVariable Long id) {
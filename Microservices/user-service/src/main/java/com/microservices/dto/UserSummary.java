@@ -0,0 +1,28 @@
+package com.microservices.dto;
+
+import com.microservices.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A user as listed to admins; leaves out the password hash and reset token
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String phone;
+    private String role;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Boolean isActive;
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getFullName(), user.getEmail(), user.getPhone(), user.getRole(),
+                user.getCreatedAt(), user.getUpdatedAt(), user.getIsActive());
+    }
+}
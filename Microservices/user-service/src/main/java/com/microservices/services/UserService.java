@@ -1,18 +1,23 @@
 package com.microservices.services;
 
 import com.microservices.dto.AuthResponse;
+import com.microservices.dto.CursorPage;
 import com.microservices.dto.LoginRequest;
 import com.microservices.dto.RegisterRequest;
+import com.microservices.dto.UserSummary;
 import com.microservices.exception.UserException;
 import com.microservices.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User createUser(RegisterRequest user) throws UserException;
     AuthResponse loginUser(LoginRequest user) throws UserException;
     User getUserById(Long id) throws UserException;
     List<User> getAllUsers();
+    CursorPage<UserSummary> getUsersPage(Long after, int size);
+    void forEachUser(Consumer<User> action);
     void deleteUser(Long id) throws UserException;
     User updateUser(Long id, User user) throws UserException;
     public void validateToken(String token);
@@ -2,21 +2,28 @@ package com.microservices.services.implementation;
 
 import com.microservices.config.JwtUtil;
 import com.microservices.dto.AuthResponse;
+import com.microservices.dto.CursorPage;
 import com.microservices.dto.LoginRequest;
 import com.microservices.dto.RegisterRequest;
+import com.microservices.dto.UserSummary;
 import com.microservices.emailservice.EmailService;
 import com.microservices.exception.UserException;
 import com.microservices.model.User;
 import com.microservices.repository.UserRepository;
 import com.microservices.services.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,11 +31,13 @@ public class UserServiceImplementation implements UserService {
     
     // for logging ans debugging
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImplementation.class);
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final UserRepository userRep;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
+    private final EntityManager entityManager;
     
     // to normalize role
     public String normalizeRole(String inputRole) {
@@ -93,6 +102,29 @@ public AuthResponse loginUser(LoginRequest req) throws UserException {
         logger.info("Fetching all users");
         return userRep.findAll();
     }
+
+    @Override
+    public CursorPage<UserSummary> getUsersPage(Long after, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether another page follows
+        List<User> rows = userRep.findPageAfter(after != null ? after : 0L, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<User> items = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items.stream().map(UserSummary::of).toList(), nextCursor, hasMore);
+    }
+
+    // Streams every user through the action, detaching each one so the persistence context stays empty
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<User> action) {
+        try (Stream<User> users = userRep.streamAll()) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
     
     // Search users by name, email, or phone
     @Override
@@ -0,0 +1,21 @@
+package com.microservice.config;
+
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Traces start here, and the services behind the gateway follow the
+ * sampling decision in the incoming traceparent. Sampling every request
+ * instead of Boot's default of 10% means any slow booking can be looked up
+ * afterwards; lower management.tracing.sampling.probability under real load.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public Sampler sampler(@Value("${management.tracing.sampling.probability:1.0}") double probability) {
+        return Sampler.parentBased(Sampler.traceIdRatioBased(probability));
+    }
+}
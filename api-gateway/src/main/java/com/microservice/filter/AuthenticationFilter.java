@@ -179,6 +179,7 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
             if (path.matches("/api/users/\\d+") && HttpMethod.DELETE.equals(method)) return true; // Delete user
             if (path.matches("/api/users/\\d+/reactivate") && HttpMethod.PATCH.equals(method)) return true; // Reactivate user
             if (path.equals("/api/users/register") && HttpMethod.POST.equals(method)) return true; // Create user (admin creates users)
+            if (path.equals("/api/users/page") || path.equals("/api/users/stream")) return true; // List all users
         }
         
         // Train management operations (admin only)
@@ -194,7 +195,21 @@ if (path.matches("/api/users/\\d+") && HttpMethod.PATCH.equals(method)) return t
         if (path.equals("/api/tickets") && HttpMethod.GET.equals(method)) {
             return true; // Only admin can see all tickets
         }
+        if (path.equals("/tickets/page") || path.equals("/tickets/stream")) {
+            return true; // Paged and streamed lists of all tickets
+        }
         
+        // Revenue and occupancy figures (admin only)
+        if (path.equals("/tickets/stats") && HttpMethod.GET.equals(method)) return true;
+        if (path.equals("/tickets/stats/recompute") && HttpMethod.POST.equals(method)) return true;
+
+        // Ticket journal state and per-ticket audit history (admin only; each history call scans the journal)
+        if (path.equals("/tickets/journal") || path.startsWith("/tickets/journal/")) return true;
+
+        // Mass train cancellation and the train cache webhook (admin only; train-service calls them directly)
+        if (path.startsWith("/tickets/train-cancellations/") && HttpMethod.POST.equals(method)) return true;
+        if (path.startsWith("/tickets/cache/")) return true;
+
         // Payment management - view all payments (admin only)
         if (path.equals("/api/payments") && HttpMethod.GET.equals(method)) {
             return true; // Only admin can see all payments
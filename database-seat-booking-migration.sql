@@ -0,0 +1,46 @@
+-- Database Migration Script for Railway Reservation System
+-- Guard against selling one seat twice for the same leg (train-service)
+
+-- ========== SEAT BOOKING LEGS ==========
+-- A seat can be sold several times on a date, once per non-overlapping part
+-- of the route. Each row records the route positions it covers as
+-- [from_stop, to_stop). The exclusion constraint below rejects a second row
+-- for the same train, date and seat whose range overlaps, so two
+-- train-service instances cannot sell the same leg even though each checks
+-- only its own in-memory seat map.
+-- Run this before train-service starts against the database.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE seat_bookings
+ADD COLUMN IF NOT EXISTS from_stop INTEGER;
+
+ALTER TABLE seat_bookings
+ADD COLUMN IF NOT EXISTS to_stop INTEGER;
+
+-- Rows without stations were sold for the whole route, which covers every leg
+UPDATE seat_bookings
+SET from_stop = 0, to_stop = 64
+WHERE from_stop IS NULL AND from_station IS NULL AND to_station IS NULL;
+
+-- Older rows sold for part of the route keep NULL positions and are left out of the check
+ALTER TABLE seat_bookings
+DROP CONSTRAINT IF EXISTS ex_seat_train_date_seat_leg;
+
+ALTER TABLE seat_bookings
+ADD CONSTRAINT ex_seat_train_date_seat_leg EXCLUDE USING gist (
+    train_id WITH =,
+    travel_date WITH =,
+    seat_number WITH =,
+    int4range(from_stop, to_stop) WITH &&
+) WHERE (from_stop IS NOT NULL AND to_stop IS NOT NULL);
+
+-- ========== VERIFICATION QUERIES ==========
+-- Seats sold twice for overlapping legs; must return no rows
+SELECT a.train_id, a.travel_date, a.seat_number, a.booking_reference, b.booking_reference
+FROM seat_bookings a
+JOIN seat_bookings b
+  ON a.train_id = b.train_id
+ AND a.travel_date = b.travel_date
+ AND a.seat_number = b.seat_number
+ AND a.seat_booking_id < b.seat_booking_id
+WHERE int4range(a.from_stop, a.to_stop) && int4range(b.from_stop, b.to_stop);
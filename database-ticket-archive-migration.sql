@@ -0,0 +1,60 @@
+-- Database Migration Script for Railway Reservation System
+-- Cold storage for travelled and cancelled tickets (ticket-service)
+
+-- ========== TICKET ARCHIVE ==========
+-- ticket_booking keeps current journeys only. TicketArchiver moves older
+-- travelled or cancelled tickets into this table in chunks, and creates one
+-- partition per month of booking_date before it moves them.
+-- Run this before ticket-service starts against the database; otherwise
+-- Hibernate creates ticket_booking_archive as a plain table.
+-- Order IDs and PNRs are unique while a ticket is live. A partitioned table
+-- cannot enforce uniqueness without the partition key, so the archive only
+-- indexes them.
+CREATE TABLE IF NOT EXISTS ticket_booking_archive (
+    ticket_id        BIGINT       NOT NULL,
+    order_id         VARCHAR(255),
+    payment_id       VARCHAR(255),
+    refund_status    VARCHAR(255),
+    refund_id        VARCHAR(255),
+    cancellation_fee DOUBLE PRECISION,
+    booking_group    VARCHAR(255),
+    full_name        VARCHAR(255),
+    age              INTEGER      NOT NULL,
+    email            VARCHAR(255),
+    ticket_number    VARCHAR(32),
+    amount           INTEGER      NOT NULL,
+    booking_date     DATE         NOT NULL,
+    user_email       VARCHAR(255),
+    train_id         BIGINT,
+    train_name       VARCHAR(255),
+    source           VARCHAR(255),
+    destination      VARCHAR(255),
+    no_of_seats      INTEGER      NOT NULL,
+    departure_time   TIMESTAMP(6),
+    waitlisted_at    TIMESTAMP(6),
+    status           VARCHAR(255),
+    archived_at      TIMESTAMP(6),
+    PRIMARY KEY (ticket_id, booking_date)
+) PARTITION BY RANGE (booking_date);
+
+-- Catches rows for a month whose partition could not be created
+CREATE TABLE IF NOT EXISTS ticket_booking_archive_default
+    PARTITION OF ticket_booking_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_ticket_archive_user_email ON ticket_booking_archive (user_email);
+CREATE INDEX IF NOT EXISTS idx_ticket_archive_ticket_number ON ticket_booking_archive (ticket_number);
+
+-- Archival selects the oldest rows by travel date
+CREATE INDEX IF NOT EXISTS idx_ticket_booking_date ON ticket_booking (booking_date);
+
+-- ========== VERIFICATION QUERIES ==========
+-- Partitions and their row counts
+SELECT c.relname AS partition, c.reltuples::BIGINT AS approx_rows
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'ticket_booking_archive'::regclass
+ORDER BY c.relname;
+
+-- Hot vs cold ticket counts
+SELECT (SELECT COUNT(*) FROM ticket_booking) AS hot_tickets,
+       (SELECT COUNT(*) FROM ticket_booking_archive) AS archived_tickets;
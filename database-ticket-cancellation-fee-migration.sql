@@ -0,0 +1,57 @@
+-- Database Migration Script for Railway Reservation System
+-- Backfill the cancellation fee kept on passenger cancellations (ticket-service)
+
+-- ========== CANCELLATION FEE BACKFILL ==========
+-- ticket_booking.cancellation_fee was added together with TicketStats, and
+-- the stats recompute sums it as revenue. Tickets cancelled before that
+-- have it NULL, so the first recompute dropped their 20% fee from revenue.
+-- This sets the fee on paid passenger cancellations that are missing it.
+-- These rows are skipped:
+-- - Tickets cancelled by a train's mass cancellation, which refunds in full.
+-- - Tickets that were ever waitlisted. A ticket cancelled while still
+--   waiting is refunded in full, and the table does not record whether it
+--   was promoted first.
+-- Run this once, then restart ticket-service or call POST /tickets/stats/recompute.
+UPDATE ticket_booking t
+SET cancellation_fee = t.amount * 0.20
+WHERE t.status = 'CANCELLED'
+AND t.payment_id IS NOT NULL
+AND t.payment_id <> ''
+AND t.cancellation_fee IS NULL
+AND t.waitlisted_at IS NULL
+AND NOT EXISTS (
+    SELECT 1
+    FROM train_cancellation_jobs j
+    WHERE j.train_id = t.train_id
+    AND t.booking_date >= CAST(j.started_at AS DATE)
+);
+
+-- Archived tickets count towards revenue too
+DO $$
+BEGIN
+    IF to_regclass('ticket_booking_archive') IS NOT NULL THEN
+        UPDATE ticket_booking_archive t
+        SET cancellation_fee = t.amount * 0.20
+        WHERE t.status = 'CANCELLED'
+        AND t.payment_id IS NOT NULL
+        AND t.payment_id <> ''
+        AND t.cancellation_fee IS NULL
+        AND t.waitlisted_at IS NULL
+        AND NOT EXISTS (
+            SELECT 1
+            FROM train_cancellation_jobs j
+            WHERE j.train_id = t.train_id
+            AND t.booking_date >= CAST(j.started_at AS DATE)
+        );
+    END IF;
+END $$;
+
+-- ========== VERIFICATION QUERIES ==========
+-- Fees kept per month of travel
+SELECT DATE_TRUNC('month', booking_date) AS month,
+       COUNT(*) AS cancelled_tickets,
+       SUM(cancellation_fee) AS fees_kept
+FROM ticket_booking
+WHERE status = 'CANCELLED'
+GROUP BY 1
+ORDER BY 1;
@@ -0,0 +1,30 @@
+-- Database Migration Script for Railway Reservation System
+-- Pooled ticket ids for batched inserts (ticket-service)
+
+-- ========== TICKET ID SEQUENCE ==========
+-- ticket_booking.ticket_id used to be an IDENTITY column. It now comes from
+-- ticket_booking_seq with an allocation size of 50, so Hibernate can batch
+-- group booking inserts. On an existing database the sequence has to start
+-- past the highest ticket id, including archived tickets; otherwise new
+-- bookings collide with old ids.
+-- Run this before the new ticket-service version starts.
+CREATE SEQUENCE IF NOT EXISTS ticket_booking_seq START WITH 1 INCREMENT BY 50;
+
+-- The archive table only exists once database-ticket-archive-migration.sql has run
+DO $$
+DECLARE
+    max_id BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(ticket_id), 0) INTO max_id FROM ticket_booking;
+    IF to_regclass('ticket_booking_archive') IS NOT NULL THEN
+        EXECUTE 'SELECT GREATEST($1, COALESCE(MAX(ticket_id), 0)) FROM ticket_booking_archive'
+            INTO max_id USING max_id;
+    END IF;
+    PERFORM setval('ticket_booking_seq', GREATEST(max_id, 1));
+END $$;
+
+-- ========== VERIFICATION QUERIES ==========
+-- The sequence must be ahead of every existing ticket id
+SELECT last_value AS sequence_value,
+       (SELECT MAX(ticket_id) FROM ticket_booking) AS max_ticket_id
+FROM ticket_booking_seq;
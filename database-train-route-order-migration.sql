@@ -0,0 +1,31 @@
+-- Database Migration Script for Railway Reservation System
+-- Stop order for train routes (train-service)
+
+-- ========== TRAIN ROUTE ORDER ==========
+-- train_routes had no order column, so a route's stops came back in
+-- whatever order Postgres returned the rows. Station search and leg-based
+-- seat allocation depend on the real stop order, so TrainDetails.routes now
+-- keeps it in route_order. Existing rows are numbered in the order they
+-- were inserted (their physical order), which is the order Hibernate wrote
+-- them. Check the result below and re-save any train that comes out wrong.
+-- Run this before train-service starts against the database.
+ALTER TABLE train_routes
+ADD COLUMN IF NOT EXISTS route_order INTEGER;
+
+UPDATE train_routes r
+SET route_order = numbered.position
+FROM (
+    SELECT ctid, ROW_NUMBER() OVER (PARTITION BY train_id ORDER BY ctid) - 1 AS position
+    FROM train_routes
+) numbered
+WHERE r.ctid = numbered.ctid
+AND r.route_order IS NULL;
+
+ALTER TABLE train_routes
+ALTER COLUMN route_order SET NOT NULL;
+
+-- ========== VERIFICATION QUERIES ==========
+-- Each train's stops in route order
+SELECT train_id, route_order, route
+FROM train_routes
+ORDER BY train_id, route_order;
@@ -1,28 +1,28 @@
 import React, { useEffect, useState } from 'react';
-import TicketsResponse from '../../../../interfaces/ticket';
-import { fetchBookedTicket } from '../../../../services/api/ticketservice';
+import { TicketStats } from '../../../../interfaces/ticket';
+import { fetchTicketStats } from '../../../../services/api/ticketservice';
 
 const RevenueCard: React.FC = () => {
-  const [tickets, setTickets] = useState<TicketsResponse[]>([]);
+  const [stats, setStats] = useState<TicketStats | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
   useEffect(() => {
-    const loadTickets = async () => {
+    const loadStats = async () => {
       try {
         setLoading(true);
         setError(null);
-        const ticketData = await fetchBookedTicket();
-        setTickets(ticketData);
+        const statsData = await fetchTicketStats();
+        setStats(statsData);
       } catch (err) {
-        console.error('Failed to fetch tickets:', err);
+        console.error('Failed to fetch ticket stats:', err);
         setError('Failed to load revenue data. Please try again.');
       } finally {
         setLoading(false);
       }
     };
 
-    loadTickets();
+    loadStats();
   }, []);
 
   // Loading state
@@ -60,20 +60,13 @@ const RevenueCard: React.FC = () => {
     );
   }
 
-  // Calculate revenue data
-  const cancelledTickets = tickets
-    .filter(ticket => ticket.status === 'CANCELLED')
-    .reduce((acc, ticket) => acc + ticket.amount * 0.20, 0);
-  
-  const confirmedRevenue = tickets
-    .filter(ticket => ticket.status === 'CONFIRMED')
-    .reduce((acc, ticket) => acc + ticket.amount, 0);
-  
-  const totalRevenue = confirmedRevenue + cancelledTickets;
-
-  // Calculate ticket statistics
-  const confirmedTickets = tickets.filter(ticket => ticket.status === 'CONFIRMED').length;
-  const cancelledTicketsCount = tickets.filter(ticket => ticket.status === 'CANCELLED').length;
+  // Revenue and ticket counts come pre-aggregated from ticket-service
+  const cancelledTickets = stats?.cancellationFees ?? 0;
+  const confirmedRevenue = stats?.confirmedRevenue ?? 0;
+  const totalRevenue = stats?.totalRevenue ?? 0;
+  const totalTickets = stats?.totalTickets ?? 0;
+  const confirmedTickets = stats?.confirmedTickets ?? 0;
+  const cancelledTicketsCount = stats?.cancelledTickets ?? 0;
   // const pendingTickets = tickets.filter(ticket => ticket.status === '').length;
 
   return (
@@ -106,7 +99,7 @@ const RevenueCard: React.FC = () => {
           Total Tickets Sold
         </div>
         <div className="text-4xl font-bold text-blue-900 mb-2">
-          {tickets.length}
+          {totalTickets}
         </div>
         <div className="text-sm text-blue-600/80 text-center">
           <div className="flex gap-2 justify-center flex-wrap">
@@ -128,7 +121,7 @@ const RevenueCard: React.FC = () => {
       </div>
 
       {/* Additional Stats Card */}
-      {tickets.length > 0 && (
+      {totalTickets > 0 && (
         <div className="bg-white/40 backdrop-blur-lg rounded-2xl shadow-lg p-6 mb-8 border border-white/40 hover:bg-white/50 transition-all duration-300">
           <div className="text-lg font-semibold text-blue-700 mb-4 text-center">
             📊 Quick Stats
@@ -136,13 +129,13 @@ const RevenueCard: React.FC = () => {
           <div className="grid grid-cols-2 gap-4 text-center">
             <div className="bg-blue-50/50 rounded-lg p-3">
               <div className="text-2xl font-bold text-blue-800">
-                ₹{tickets.length > 0 ? (totalRevenue / tickets.length).toFixed(0) : '0'}
+                ₹{totalTickets > 0 ? (totalRevenue / totalTickets).toFixed(0) : '0'}
               </div>
               <div className="text-xs text-blue-600">Avg. Revenue per Ticket</div>
             </div>
             <div className="bg-green-50/50 rounded-lg p-3">
               <div className="text-2xl font-bold text-green-800">
-                {tickets.length > 0 ? ((confirmedTickets / tickets.length) * 100).toFixed(1) : '0'}%
+                {totalTickets > 0 ? ((confirmedTickets / totalTickets) * 100).toFixed(1) : '0'}%
               </div>
               <div className="text-xs text-green-600">Success Rate</div>
             </div>
@@ -151,7 +144,7 @@ const RevenueCard: React.FC = () => {
       )}
 
       {/* Empty State */}
-      {!loading && !error && tickets.length === 0 && (
+      {!loading && !error && totalTickets === 0 && (
         <div className="bg-gray-100/40 backdrop-blur-lg rounded-2xl shadow-lg p-8 flex flex-col items-center justify-center mb-8 border border-gray-200/40">
           <div className="text-6xl mb-4">📭</div>
           <div className="text-xl font-semibold text-gray-600 mb-2">No Tickets Found</div>
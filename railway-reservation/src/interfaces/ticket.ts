@@ -29,3 +29,15 @@ export default interface TicketResponse{
 }
 
 export type TicketStatus = "WAITING" | "CONFIRMED" | "CANCELLED";
+
+export interface TicketStats {
+  totalTickets: number;
+  confirmedTickets: number;
+  waitingTickets: number;
+  cancelledTickets: number;
+  seatsSold: number;
+  confirmedRevenue: number;
+  cancellationFees: number;
+  totalRevenue: number;
+  recomputedAt: string | null;
+}
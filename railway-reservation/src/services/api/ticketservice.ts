@@ -1,7 +1,7 @@
 const API_URL = import.meta.env.VITE_API_GATEWAY_URL;
 const getToken =()=> localStorage.getItem("token");
 import axios from "axios";
-import TicketResponse from "../../interfaces/ticket"
+import TicketResponse, { TicketStats } from "../../interfaces/ticket"
 
 export const fetchBookedTicket = async (): Promise<TicketResponse[]> => {
 	const token = getToken();
@@ -24,3 +24,14 @@ export const submitTicketForm = async (trainId: number, formData: any) => {
     return response.data;
 };
 
+
+// Dashboard totals kept up to date by ticket-service; the cost does not grow with the number of tickets
+export const fetchTicketStats = async (): Promise<TicketStats> => {
+    const token = getToken();
+    const response = await axios.get<TicketStats>(`${API_URL}/tickets/stats`, {
+        headers: {
+            Authorization: `Bearer ${token}`
+        }
+    });
+    return response.data;
+};